@@ -0,0 +1,92 @@
+package com.wish.listeners;
+
+import com.wish.managers.RegionIndex;
+import org.bukkit.Location;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.plugin.RegisteredListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MoveDispatchBenchmark
+ * Measures what an idle MiniKOTH adds to every PlayerMoveEvent. Events are
+ * fired the way the plugin manager fires them, through a HandlerList that
+ * already holds one listener of another plugin. With registered set, a
+ * listener does the work the always-registered KOTHListener did while no
+ * KOTH was running: the block compare and the active KOTH lookup for the
+ * world. Without it the handler list is what an idle server has now that
+ * the listener is only registered while a KOTH runs.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MoveDispatchBenchmark
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveDispatchBenchmark {
+    private static final String WORLD = "world";
+
+    @Param({"false", "true"})
+    public boolean registered;
+
+    private HandlerList handlers;
+    private PlayerMoveEvent event;
+    private RegionIndex regionIndex;
+    private int handled;
+
+    @Setup
+    public void setup() {
+        // No KOTH is running, the index is empty
+        regionIndex = new RegionIndex();
+        handlers = new HandlerList();
+        handlers.register(new RegisteredListener(new Listener() {
+        }, (listener, fired) -> handled++, EventPriority.NORMAL, null, false));
+
+        if (registered) {
+            handlers.register(new RegisteredListener(new Listener() {
+            }, (listener, fired) -> {
+                PlayerMoveEvent move = (PlayerMoveEvent) fired;
+                Location from = move.getFrom();
+                Location to = move.getTo();
+                if (to.getBlockX() == from.getBlockX()
+                        && to.getBlockY() == from.getBlockY()
+                        && to.getBlockZ() == from.getBlockZ()) {
+                    return;
+                }
+                if (!regionIndex.hasWorld(WORLD)) return;
+                handled++;
+            }, EventPriority.MONITOR, null, true));
+        }
+
+        // A step into the next block, so the handler gets past the block compare
+        event = new PlayerMoveEvent(null, new Location(null, 0.5, 64, 0.5), new Location(null, 1.5, 64, 0.5));
+    }
+
+    @Benchmark
+    public int dispatch() throws EventException {
+        for (RegisteredListener listener : handlers.getRegisteredListeners()) {
+            listener.callEvent(event);
+        }
+        return handled;
+    }
+}
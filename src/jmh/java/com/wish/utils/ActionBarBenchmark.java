@@ -0,0 +1,88 @@
+package com.wish.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ActionBarBenchmark
+ * Per-send cost of an action bar on 1.8.8 before and after PacketAdapter.
+ * reflection repeats the lookups the old MessageUtils.sendActionBar made
+ * on every call and builds the packet through them; methodHandles builds
+ * it through handles resolved once, like PacketAdapter. Writing the packet
+ * to the player's connection needs a running server and costs the same in
+ * both, so only its lookups are measured.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ActionBarBenchmark
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionBarBenchmark {
+    private static final String VERSION = "v1_8_R3";
+    private static final String NMS = "net.minecraft.server." + VERSION + ".";
+    private static final byte ACTION_BAR = 2;
+    private static final String MESSAGE = "§eCaptured: §a■■■■■■■■■■§7■■■■■■■■■■ §e1:30";
+
+    private Class<?> craftPlayerClass;
+    private Class<?> entityPlayerClass;
+    private Class<?> connectionClass;
+    private MethodHandle newComponent;
+    private MethodHandle newChatPacket;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        ClassLoader loader = getClass().getClassLoader();
+        craftPlayerClass = Class.forName("org.bukkit.craftbukkit." + VERSION + ".entity.CraftPlayer", false, loader);
+        entityPlayerClass = Class.forName(NMS + "EntityPlayer", false, loader);
+        connectionClass = Class.forName(NMS + "PlayerConnection", false, loader);
+
+        // Resolved the same way as PacketAdapter.resolveNMS
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        newComponent = lookup.findConstructor(Class.forName(NMS + "ChatComponentText"),
+                        MethodType.methodType(void.class, String.class))
+                .asType(MethodType.methodType(Object.class, String.class));
+        newChatPacket = lookup.findConstructor(Class.forName(NMS + "PacketPlayOutChat"),
+                        MethodType.methodType(void.class, Class.forName(NMS + "IChatBaseComponent"), byte.class))
+                .asType(MethodType.methodType(Object.class, Object.class, byte.class));
+    }
+
+    @Benchmark
+    public Object reflection() throws ReflectiveOperationException {
+        Class<?> packetClass = Class.forName(NMS + "PacketPlayOutChat");
+        Class<?> chatComponentClass = Class.forName(NMS + "ChatComponentText");
+        Class<?> iChatBaseComponentClass = Class.forName(NMS + "IChatBaseComponent");
+
+        Object chatComponent = chatComponentClass.getConstructor(String.class).newInstance(MESSAGE);
+        Object packet = packetClass.getConstructor(iChatBaseComponentClass, byte.class)
+                .newInstance(chatComponent, ACTION_BAR);
+
+        craftPlayerClass.getMethod("getHandle");
+        entityPlayerClass.getField("playerConnection");
+        connectionClass.getMethod("sendPacket", Class.forName(NMS + "Packet"));
+        return packet;
+    }
+
+    @Benchmark
+    public Object methodHandles() throws Throwable {
+        return (Object) newChatPacket.invokeExact(newComponent.invokeExact(MESSAGE), ACTION_BAR);
+    }
+}
@@ -0,0 +1,89 @@
+package com.wish.utils;
+
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.BlockVector2D;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedPolygonalRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RegionBoundsBenchmark
+ * Compares RegionBounds.contains with ProtectedRegion.contains, the check
+ * made for every player before regions were compiled. The old path also
+ * looked up the WorldGuard plugin and region manager and called
+ * Player#getLocation per check; that needs a running server and is left
+ * out, so the WorldGuard numbers are a lower bound.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RegionBoundsBenchmark
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionBoundsBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param({"cuboid", "polygon"})
+    public String shape;
+
+    private ProtectedRegion region;
+    private RegionBounds bounds;
+    private int worldId;
+    private final int[] xs = new int[POSITIONS];
+    private final int[] ys = new int[POSITIONS];
+    private final int[] zs = new int[POSITIONS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        if (shape.equals("cuboid")) {
+            region = new ProtectedCuboidRegion("koth", new BlockVector(-20, 60, -20), new BlockVector(20, 80, 20));
+        } else {
+            region = new ProtectedPolygonalRegion("koth", Arrays.asList(
+                    new BlockVector2D(-20, -20), new BlockVector2D(20, -20), new BlockVector2D(30, 10),
+                    new BlockVector2D(0, 30), new BlockVector2D(-30, 10)), 60, 80);
+        }
+        bounds = RegionBounds.compile(region, "world");
+        worldId = RegionBounds.worldId("world");
+
+        // Players spread around the hill, part of them inside
+        Random random = new Random(42);
+        for (int i = 0; i < POSITIONS; i++) {
+            xs[i] = random.nextInt(81) - 40;
+            ys[i] = random.nextInt(41) + 50;
+            zs[i] = random.nextInt(81) - 40;
+        }
+    }
+
+    @Benchmark
+    public boolean worldGuard() {
+        int i = next++ & (POSITIONS - 1);
+        return region.contains(xs[i], ys[i], zs[i]);
+    }
+
+    @Benchmark
+    public boolean regionBounds() {
+        int i = next++ & (POSITIONS - 1);
+        return bounds.contains(worldId, xs[i], ys[i], zs[i]);
+    }
+}
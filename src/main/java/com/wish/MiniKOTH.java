@@ -2,11 +2,17 @@ package com.wish;
 
 import com.wish.commands.MiniKOTHCommand;
 import com.wish.listeners.ChestListener;
-import com.wish.listeners.KOTHListener;
+import com.wish.listeners.WorldListener;
 import com.wish.managers.ConfigManager;
+import com.wish.managers.ConfigWatcher;
 import com.wish.managers.KOTHManager;
+import com.wish.managers.PersistenceService;
+import com.wish.managers.ReloadManager;
 import com.wish.managers.RewardManager;
 import com.wish.managers.ScheduleManager;
+import com.wish.managers.StorageService;
+import com.wish.utils.PacketAdapter;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
@@ -24,6 +30,12 @@ public class MiniKOTH extends JavaPlugin {
     private KOTHManager kothManager;
     private RewardManager rewardManager;
     private ScheduleManager scheduleManager;
+    private PersistenceService persistenceService;
+    private StorageService storageService;
+    private ReloadManager reloadManager;
+    private ConfigWatcher configWatcher;
+    private PacketAdapter packetAdapter;
+    private FileConfiguration swappedConfig;
 
     /**
      * Called when the plugin is enabled
@@ -46,9 +58,18 @@ public class MiniKOTH extends JavaPlugin {
 
             // Initialize managers in correct order
             this.configManager = new ConfigManager(this);
+            this.persistenceService = new PersistenceService(this);
+            this.storageService = new StorageService(this);
+            this.packetAdapter = new PacketAdapter(getLogger());
             this.kothManager = new KOTHManager(this);
             this.rewardManager = new RewardManager(this);
             this.scheduleManager = new ScheduleManager(this);
+            this.reloadManager = new ReloadManager(this);
+            this.configWatcher = new ConfigWatcher(this);
+            configWatcher.update();
+
+            // Continue KOTHs that were running when the server stopped
+            kothManager.resumePending();
 
             // Register commands
             registerCommands();
@@ -71,14 +92,59 @@ public class MiniKOTH extends JavaPlugin {
      */
     @Override
     public void onDisable() {
+        if (configWatcher != null) {
+            configWatcher.stop();
+        }
+
+        if (rewardManager != null) {
+            rewardManager.shutdown();
+        }
+
         // Save any necessary data
         if (kothManager != null) {
+            kothManager.shutdown();
             kothManager.saveAll();
         }
 
+        // Wait for every queued KOTH write
+        if (storageService != null) {
+            storageService.shutdown();
+        }
+
+        // Wait for every queued config write
+        if (persistenceService != null) {
+            persistenceService.shutdown();
+        }
+
         getLogger().info("MiniKOTH has been disabled!");
     }
 
+    /**
+     * Gets the plugin configuration, including one swapped in by an async reload
+     * @return Current configuration
+     */
+    @Override
+    public FileConfiguration getConfig() {
+        return swappedConfig != null ? swappedConfig : super.getConfig();
+    }
+
+    /**
+     * Reloads the configuration from disk on the calling thread
+     */
+    @Override
+    public void reloadConfig() {
+        swappedConfig = null;
+        super.reloadConfig();
+    }
+
+    /**
+     * Replaces the configuration with one loaded off the main thread
+     * @param config Loaded configuration with defaults attached
+     */
+    public void swapConfig(FileConfiguration config) {
+        this.swappedConfig = config;
+    }
+
     /**
      * Gets the instance of the plugin
      * @return MiniKOTH instance
@@ -97,12 +163,13 @@ public class MiniKOTH extends JavaPlugin {
     }
 
     /**
-     * Registers all event listeners
+     * Registers all event listeners.
+     * KOTHListener is registered by KOTHManager only while a KOTH is active.
      */
     private void registerEvents() {
         try {
-            getServer().getPluginManager().registerEvents(new KOTHListener(this), this);
             getServer().getPluginManager().registerEvents(rewardManager.getChestListener(), this);
+            getServer().getPluginManager().registerEvents(new WorldListener(this), this);
         } catch (Exception e) {
             getLogger().severe("Error registering events: " + e.getMessage());
             e.printStackTrace();
@@ -151,4 +218,24 @@ public class MiniKOTH extends JavaPlugin {
     public ScheduleManager getScheduleManager() {
         return scheduleManager;
     }
-}
\ No newline at end of file
+
+    public PersistenceService getPersistenceService() {
+        return persistenceService;
+    }
+
+    public StorageService getStorageService() {
+        return storageService;
+    }
+
+    public ReloadManager getReloadManager() {
+        return reloadManager;
+    }
+
+    public ConfigWatcher getConfigWatcher() {
+        return configWatcher;
+    }
+
+    public PacketAdapter getPacketAdapter() {
+        return packetAdapter;
+    }
+}
@@ -47,6 +47,10 @@ public class MiniKOTHCommand implements CommandExecutor, TabCompleter {
         subCommands.put("start", new StartCommand(plugin));
         subCommands.put("stop", new StopCommand(plugin));
         subCommands.put("reload", new ReloadCommand(plugin));
+        subCommands.put("stats", new StatsCommand(plugin));
+        subCommands.put("notify", new NotifyCommand(plugin));
+        subCommands.put("history", new HistoryCommand(plugin));
+        subCommands.put("loot", new LootCommand(plugin));
     }
 
     @Override
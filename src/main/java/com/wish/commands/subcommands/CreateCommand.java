@@ -8,6 +8,7 @@ import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.wish.MiniKOTH;
 import com.wish.commands.SubCommand;
+import com.wish.managers.KOTHManager;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import com.sk89q.worldedit.BlockVector;
@@ -49,6 +50,10 @@ public class CreateCommand implements SubCommand {
 
         Player player = (Player) sender;
         String kothName = args[1].toLowerCase();
+        if (!KOTHManager.isValidName(kothName)) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("invalid-name"));
+            return true;
+        }
 
         // Check if KOTH already exists
         if (plugin.getKothManager().getKOTH(kothName) != null) {
@@ -82,6 +87,7 @@ public class CreateCommand implements SubCommand {
         // Create KOTH with player's location as chest spawn
         boolean created = plugin.getKothManager().createKOTH(
                 kothName,
+                player.getWorld(),
                 region,
                 player.getLocation()
         );
@@ -5,6 +5,8 @@ import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.wish.MiniKOTH;
 import com.wish.commands.SubCommand;
 import com.wish.managers.KOTH;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
@@ -42,7 +44,12 @@ public class DeleteCommand implements SubCommand {
         KOTH koth = plugin.getKothManager().getKOTH(kothName);
 
         if (koth == null) {
-            sender.sendMessage(plugin.getConfigManager().getMessage("koth-not-found"));
+            // KOTHs waiting for their world can still be deleted from storage
+            if (plugin.getKothManager().deleteUnresolved(kothName)) {
+                sender.sendMessage(plugin.getConfigManager().getMessage("koth-deleted", "name", kothName));
+            } else {
+                sender.sendMessage(plugin.getConfigManager().getMessage("koth-not-found"));
+            }
             return true;
         }
 
@@ -52,19 +59,18 @@ public class DeleteCommand implements SubCommand {
             return true;
         }
 
-        // Delete WorldGuard region
-        Player player = (Player) sender;
+        // Delete WorldGuard region from the KOTH's own world
+        World world = Bukkit.getWorld(koth.getWorldName());
         WorldGuardPlugin worldGuard = (WorldGuardPlugin) plugin.getServer().getPluginManager().getPlugin("WorldGuard");
-        RegionManager regionManager = worldGuard.getRegionManager(player.getWorld());
+        RegionManager regionManager = world != null ? worldGuard.getRegionManager(world) : null;
         String regionId = "koth_" + kothName;
 
-        if (regionManager.hasRegion(regionId)) {
+        if (regionManager != null && regionManager.hasRegion(regionId)) {
             regionManager.removeRegion(regionId);
         }
 
-        // Remove KOTH from config and memory
-        plugin.getConfig().set("koths." + kothName, null);
-        plugin.saveConfig();
+        // Remove KOTH from storage and memory
+        plugin.getKothManager().deleteKOTH(kothName);
 
         // Remove from KOTHManager
         plugin.getKothManager().removeKOTH(kothName);
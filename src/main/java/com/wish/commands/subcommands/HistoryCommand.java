@@ -0,0 +1,87 @@
+package com.wish.commands.subcommands;
+
+import com.wish.MiniKOTH;
+import com.wish.commands.SubCommand;
+import com.wish.storage.CaptureRecord;
+import com.wish.utils.MessageUtils;
+import org.bukkit.command.CommandSender;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * HistoryCommand
+ * Shows the latest runs of a KOTH and who captured them
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class HistoryCommand implements SubCommand {
+    private static final int HISTORY_SIZE = 10;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final MiniKOTH plugin;
+
+    public HistoryCommand(MiniKOTH plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("minikoth.history")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("no-permission"));
+            return true;
+        }
+
+        if (args.length != 2) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("history-usage"));
+            return true;
+        }
+
+        // History is kept for deleted KOTHs as well, so any name can be looked up
+        String kothName = args[1].toLowerCase();
+        plugin.getStorageService().loadHistory(kothName, HISTORY_SIZE, history -> {
+            if (history.isEmpty()) {
+                sender.sendMessage(plugin.getConfigManager().getMessage("history-empty", "name", kothName));
+                return;
+            }
+
+            DateTimeFormatter format = DATE_FORMAT.withZone(plugin.getConfigManager().getZone());
+            sender.sendMessage(plugin.getConfigManager().getMessage("history-header", "name", kothName));
+            for (CaptureRecord record : history) {
+                int seconds = (int) Math.max(0, (record.getEndedAt() - record.getStartedAt()) / 1000);
+                String date = format.format(Instant.ofEpochMilli(record.getEndedAt()));
+                if (record.getWinnerName() != null) {
+                    sender.sendMessage(plugin.getConfigManager().getMessage("history-entry",
+                            "date", date,
+                            "winner", record.getWinnerName(),
+                            "duration", MessageUtils.formatTime(seconds)));
+                } else {
+                    sender.sendMessage(plugin.getConfigManager().getMessage("history-entry-no-winner",
+                            "date", date,
+                            "duration", MessageUtils.formatTime(seconds)));
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        if (args.length == 2) {
+            String partial = args[1].toLowerCase();
+            return plugin.getKothManager().getKOTHs().keySet().stream()
+                    .filter(name -> name.startsWith(partial))
+                    .collect(Collectors.toList());
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shows the capture history of a KOTH";
+    }
+}
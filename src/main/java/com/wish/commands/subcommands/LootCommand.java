@@ -0,0 +1,124 @@
+package com.wish.commands.subcommands;
+
+import com.wish.MiniKOTH;
+import com.wish.commands.SubCommand;
+import com.wish.managers.LootSimulator;
+import com.wish.utils.LootTable;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LootCommand
+ * Simulates reward chest fills to show the expected payout per capture
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class LootCommand implements SubCommand {
+    private static final long MAX_CHESTS = 100_000_000L;
+
+    private final MiniKOTH plugin;
+
+    public LootCommand(MiniKOTH plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("minikoth.loot")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("no-permission"));
+            return true;
+        }
+
+        if (args.length != 3 || !args[1].equalsIgnoreCase("simulate")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("loot-usage"));
+            return true;
+        }
+
+        long chests;
+        try {
+            chests = Long.parseLong(args[2].replace("_", ""));
+        } catch (NumberFormatException e) {
+            chests = -1;
+        }
+        if (chests < 1 || chests > MAX_CHESTS) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("loot-invalid-count",
+                    "max", String.valueOf(MAX_CHESTS)));
+            return true;
+        }
+
+        LootTable table = plugin.getConfigManager().getLootTable();
+        if (table.isEmpty()) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("loot-empty"));
+            return true;
+        }
+
+        LootSimulator simulator = plugin.getRewardManager().getLootSimulator();
+        boolean started = simulator.simulate(table, chests, result -> {
+            if (result == null) {
+                sender.sendMessage(plugin.getConfigManager().getMessage("loot-failed"));
+                return;
+            }
+            sendResult(sender, result);
+        });
+        sender.sendMessage(plugin.getConfigManager().getMessage(started ? "loot-started" : "loot-in-progress",
+                "chests", String.valueOf(chests)));
+        return true;
+    }
+
+    /**
+     * Sends the outcome of a simulation, one line per loot table entry
+     */
+    private void sendResult(CommandSender sender, LootSimulator.Result result) {
+        sender.sendMessage(plugin.getConfigManager().getMessage("loot-header",
+                "chests", String.valueOf(result.getChests()),
+                "time", String.valueOf(result.getNanos() / 1_000_000),
+                "threads", String.valueOf(result.getThreads())));
+        sender.sendMessage(plugin.getConfigManager().getMessage("loot-summary",
+                "stacks", format(result.getAverageFilled()),
+                "variance", format(result.getFilledVariance()),
+                "lost", formatPercent(result.getCollisionRate())));
+
+        LootTable table = result.getTable();
+        for (int i = 0; i < table.size(); i++) {
+            LootTable.Entry entry = table.getEntry(i);
+            String item = entry.getMaterial().name() + (entry.getData() != 0 ? ":" + entry.getData() : "");
+            sender.sendMessage(plugin.getConfigManager().getMessage("loot-entry",
+                    "item", item,
+                    "amount", String.valueOf(entry.getAmount()),
+                    "tier", entry.getTier(),
+                    "chance", formatPercent(entry.getChance()),
+                    "frequency", formatPercent(result.getFrequency(i)),
+                    "stacks", format(result.getAverageStacks(i)),
+                    "variance", format(result.getStackVariance(i)),
+                    "items", format(result.getAverageItems(i))));
+        }
+    }
+
+    private String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private String formatPercent(double share) {
+        return String.format("%.2f", share * 100);
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        if (args.length == 2 && "simulate".startsWith(args[1].toLowerCase())) {
+            return Collections.singletonList("simulate");
+        }
+        if (args.length == 3 && args[1].equalsIgnoreCase("simulate") && args[2].isEmpty()) {
+            return Collections.singletonList("1000000");
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Simulates reward chests to show their expected loot";
+    }
+}
@@ -0,0 +1,47 @@
+package com.wish.commands.subcommands;
+
+import com.wish.MiniKOTH;
+import com.wish.commands.SubCommand;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NotifyCommand
+ * Toggles whether a player receives opt-in KOTH broadcasts
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class NotifyCommand implements SubCommand {
+    private final MiniKOTH plugin;
+
+    public NotifyCommand(MiniKOTH plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("player-only"));
+            return true;
+        }
+
+        Player player = (Player) sender;
+        boolean enabled = plugin.getKothManager().getMessageBus().toggleOptIn(player.getUniqueId());
+        sender.sendMessage(plugin.getConfigManager().getMessage(enabled ? "notify-enabled" : "notify-disabled"));
+        return true;
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Toggles opt-in KOTH notifications";
+    }
+}
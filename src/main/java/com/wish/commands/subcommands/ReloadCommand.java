@@ -28,20 +28,10 @@ public class ReloadCommand implements SubCommand {
             return true;
         }
 
-        // Stop all active KOTHs
-        for (String kothName : new ArrayList<>(plugin.getKothManager().getKOTHs().keySet())) {
-            if (plugin.getKothManager().getKOTH(kothName).isActive()) {
-                plugin.getKothManager().endKOTH(kothName);
-            }
+        // Running KOTHs keep going, only the changed parts of the config are applied
+        if (!plugin.getReloadManager().reload(sender)) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("reload-in-progress"));
         }
-
-        // Reload configuration
-        plugin.getConfigManager().loadConfig();
-
-        // Reload schedule manager
-        plugin.getScheduleManager().reload();
-
-        sender.sendMessage(plugin.getConfigManager().getMessage("reload-success"));
         return true;
     }
 
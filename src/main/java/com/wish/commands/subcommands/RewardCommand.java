@@ -38,6 +38,12 @@ public class RewardCommand implements SubCommand {
 
         String subCommand = args[1].toLowerCase();
 
+        // A change made while a reload is reading config.yml would be lost when the reload is installed
+        if (!subCommand.equals("list") && plugin.getReloadManager().isReloading()) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("config-reloading"));
+            return true;
+        }
+
         switch (subCommand) {
             case "add":
                 return handleAdd(sender, args);
@@ -38,6 +38,12 @@ public class ScheduleCommand implements SubCommand {
 
         String subCommand = args[1].toLowerCase();
 
+        // A change made while a reload is reading config.yml would be lost when the reload is installed
+        if (!subCommand.equals("list") && plugin.getReloadManager().isReloading()) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("config-reloading"));
+            return true;
+        }
+
         switch (subCommand) {
             case "add":
                 return handleAdd(sender, args);
@@ -124,8 +130,7 @@ public class ScheduleCommand implements SubCommand {
      * Handles the enable subcommand
      */
     private boolean handleEnable(CommandSender sender) {
-        plugin.getConfig().set("schedules.enabled", true);
-        plugin.saveConfig();
+        plugin.getConfigManager().setSchedulesEnabled(true);
         plugin.getScheduleManager().reload();
         sender.sendMessage(plugin.getConfigManager().getMessage("schedule-enabled"));
         return true;
@@ -135,8 +140,7 @@ public class ScheduleCommand implements SubCommand {
      * Handles the disable subcommand
      */
     private boolean handleDisable(CommandSender sender) {
-        plugin.getConfig().set("schedules.enabled", false);
-        plugin.saveConfig();
+        plugin.getConfigManager().setSchedulesEnabled(false);
         plugin.getScheduleManager().reload();
         sender.sendMessage(plugin.getConfigManager().getMessage("schedule-disabled"));
         return true;
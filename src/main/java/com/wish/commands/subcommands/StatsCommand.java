@@ -0,0 +1,138 @@
+package com.wish.commands.subcommands;
+
+import com.wish.MiniKOTH;
+import com.wish.commands.SubCommand;
+import com.wish.managers.CaptureEngine;
+import com.wish.managers.ConfigWatcher;
+import com.wish.managers.DriftStats;
+import com.wish.managers.MessageBus;
+import com.wish.managers.PersistenceService;
+import com.wish.managers.StorageService;
+import com.wish.utils.PacketAdapter;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * StatsCommand
+ * Shows runtime statistics of the capture engine and KOTH timers
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class StatsCommand implements SubCommand {
+    private final MiniKOTH plugin;
+
+    public StatsCommand(MiniKOTH plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("minikoth.stats")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("no-permission"));
+            return true;
+        }
+
+        CaptureEngine engine = plugin.getKothManager().getCaptureEngine();
+        DriftStats drift = plugin.getKothManager().getDriftStats();
+
+        if (args.length == 2 && args[1].equalsIgnoreCase("reset")) {
+            engine.resetStats();
+            drift.reset();
+            plugin.getPacketAdapter().resetStats();
+            plugin.getKothManager().getMessageBus().resetStats();
+            sender.sendMessage(plugin.getConfigManager().getMessage("stats-reset"));
+            return true;
+        }
+
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-header"));
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-engine",
+                "active", String.valueOf(engine.getActiveCount()),
+                "passes", String.valueOf(engine.getPasses()),
+                "listener", plugin.getKothManager().isListenerRegistered() ? "registered" : "idle",
+                "waiting", String.valueOf(plugin.getKothManager().getUnresolvedKOTHs().size())));
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-pass-time",
+                "avg", formatMicros(engine.getAveragePassNanos()),
+                "last", formatMicros(engine.getLastPassNanos()),
+                "max", formatMicros(engine.getMaxPassNanos()),
+                "serviced", String.valueOf(engine.getLastPassServiced())));
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-timing",
+                "mode", plugin.getConfigManager().getTimingMode().name().toLowerCase(),
+                "interval", formatMillis(drift.getAverageIntervalNanos()),
+                "max-interval", formatMillis(drift.getMaxIntervalNanos()),
+                "drift", formatSeconds(drift.getLastDriftNanos()),
+                "max-drift", formatSeconds(drift.getMaxDriftNanos())));
+        PacketAdapter packets = plugin.getPacketAdapter();
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-action-bar",
+                "mode", packets.getModeName(),
+                "version", packets.getVersion(),
+                "sends", String.valueOf(packets.getSends()),
+                "avg", formatMicros(packets.getAverageSendNanos()),
+                "max", formatMicros(packets.getMaxSendNanos())));
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-chat",
+                "mode", packets.isSharedChat() ? "shared" : "per-player",
+                "built", String.valueOf(packets.getChatPacketsBuilt()),
+                "written", String.valueOf(packets.getChatPacketsWritten())));
+        MessageBus bus = plugin.getKothManager().getMessageBus();
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-messages",
+                "queued", String.valueOf(bus.getQueued()),
+                "sent", String.valueOf(bus.getPacketsSent()),
+                "saved", String.valueOf(bus.getPacketsSaved()),
+                "scoped", String.valueOf(bus.getPacketsScoped())));
+        StorageService storage = plugin.getStorageService();
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-storage",
+                "type", storage.getType().name().toLowerCase(),
+                "writes", String.valueOf(storage.getWrites()),
+                "failures", String.valueOf(storage.getFailures())));
+        ConfigWatcher watcher = plugin.getConfigWatcher();
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-watcher",
+                "state", watcher.isRunning() ? "watching" : "off",
+                "events", String.valueOf(watcher.getEvents()),
+                "reloads", String.valueOf(watcher.getReloads()),
+                "unchanged", String.valueOf(watcher.getUnchanged())));
+        PersistenceService persistence = plugin.getPersistenceService();
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-persistence",
+                "requests", String.valueOf(persistence.getRequests()),
+                "writes", String.valueOf(persistence.getWrites()),
+                "pending", persistence.hasPendingChanges() ? "yes" : "no"));
+        sender.sendMessage(plugin.getConfigManager().getMessage("stats-footer"));
+        return true;
+    }
+
+    /**
+     * Formats a nanosecond duration as microseconds
+     */
+    private String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    /**
+     * Formats a nanosecond duration as milliseconds
+     */
+    private String formatMillis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Formats a nanosecond duration as seconds
+     */
+    private String formatSeconds(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        if (args.length == 2 && "reset".startsWith(args[1].toLowerCase())) {
+            return Collections.singletonList("reset");
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shows capture engine and timer statistics";
+    }
+}
@@ -1,11 +1,10 @@
 package com.wish.listeners;
 
 import com.wish.MiniKOTH;
-import com.wish.utils.ChestReward;
+import com.wish.utils.LootTable;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -14,12 +13,10 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.metadata.FixedMetadataValue;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
 
 /**
  * ChestListener
@@ -33,6 +30,7 @@ public class ChestListener implements Listener {
     private final MiniKOTH plugin;
     private static final String KOTH_CHEST_META = "koth_chest";
     private static final String KOTH_WINNER_META = "koth_winner";
+    private final SplittableRandom random = new SplittableRandom(); // Main thread only
 
     /**
      * Constructor for ChestListener
@@ -60,7 +58,7 @@ public class ChestListener implements Listener {
         String winner = block.getMetadata(KOTH_WINNER_META).get(0).asString();
 
         // Only allow the winner to open the chest
-        if (!player.getName().equals(winner)) {
+        if (!player.getUniqueId().toString().equals(winner)) {
             event.setCancelled(true);
             player.sendMessage(plugin.getConfigManager().getMessage("cannot-open"));
         }
@@ -84,12 +82,12 @@ public class ChestListener implements Listener {
     /**
      * Creates a KOTH reward chest
      * @param block Block to make into a KOTH chest
-     * @param winner Name of the player who won
+     * @param winner Player who won
      */
-    public void createKOTHChest(Block block, String winner) {
+    public void createKOTHChest(Block block, Player winner) {
         block.setType(Material.CHEST);
         block.setMetadata(KOTH_CHEST_META, new FixedMetadataValue(plugin, true));
-        block.setMetadata(KOTH_WINNER_META, new FixedMetadataValue(plugin, winner));
+        block.setMetadata(KOTH_WINNER_META, new FixedMetadataValue(plugin, winner.getUniqueId().toString()));
 
         // Schedule chest removal
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
@@ -107,40 +105,24 @@ public class ChestListener implements Listener {
     }
 
     /**
-     * Fills a chest with reward items
+     * Fills a chest with reward items rolled from the compiled loot table
      * @param chest Chest to fill with rewards
      */
     private void fillChestWithRewards(Chest chest) {
-        ConfigurationSection rewardsSection = plugin.getConfig().getConfigurationSection("rewards.chest.items");
-        if (rewardsSection == null || !plugin.getConfig().getBoolean("rewards.chest.enabled", true)) {
-            return;
-        }
+        LootTable table = plugin.getConfigManager().getLootTable();
+        if (table.isEmpty()) return;
 
-        // Cargar todas las recompensas posibles
-        List<ChestReward> rewards = new ArrayList<>();
-        for (String tier : rewardsSection.getKeys(false)) {
-            ConfigurationSection tierSection = rewardsSection.getConfigurationSection(tier);
-            if (tierSection != null) {
-                rewards.add(ChestReward.fromConfig(tier, tierSection));
-            }
-        }
+        int[] slots = new int[LootTable.CHEST_SIZE];
+        table.fill(random, slots);
 
-        // Generar recompensas aleatorias
-        Random random = new Random();
         Inventory inv = chest.getInventory();
-
-        // Llenar el cofre con 5-7 items aleatorios
-        int itemCount = random.nextInt(3) + 5;
-        for (int i = 0; i < itemCount; i++) {
-            int slot = random.nextInt(27); // Cofre simple tiene 27 slots
-            if (inv.getItem(slot) == null) { // Solo si el slot está vacío
-                ItemStack reward = ChestReward.getRandomReward(rewards);
-                inv.setItem(slot, reward);
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] >= 0 && inv.getItem(slot) == null) { // Solo si el slot está vacío
+                inv.setItem(slot, table.createItem(slots[slot]));
             }
         }
     }
 
-
     /**
      * Checks if a block is a KOTH chest
      * @param block Block to check
@@ -153,10 +135,10 @@ public class ChestListener implements Listener {
     /**
      * Gets the winner of a KOTH chest
      * @param block Chest block to check
-     * @return Name of the winner, or null if not a KOTH chest
+     * @return UUID of the winner, or null if not a KOTH chest
      */
-    public String getChestWinner(Block block) {
+    public UUID getChestWinner(Block block) {
         if (!isKOTHChest(block)) return null;
-        return block.getMetadata(KOTH_WINNER_META).get(0).asString();
+        return UUID.fromString(block.getMetadata(KOTH_WINNER_META).get(0).asString());
     }
 }
\ No newline at end of file
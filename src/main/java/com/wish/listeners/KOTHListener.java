@@ -1,18 +1,27 @@
 package com.wish.listeners;
 
-import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.wish.MiniKOTH;
-import com.wish.managers.KOTH;
+import com.wish.managers.KOTHManager;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
 
 /**
  * KOTHListener
- * Handles all KOTH-related events including player movement and region entry/exit
+ * Handles all KOTH-related events including player movement and region entry/exit.
+ * Events only keep KOTH occupancy up to date; the capture tick decides who is capturing.
+ * Registered by KOTHManager only while at least one KOTH is active.
  *
  * @author wwishh
  * @version 0.0.1
@@ -32,90 +41,101 @@ public class KOTHListener implements Listener {
      * Handles player movement for KOTH capture
      * @param event PlayerMoveEvent
      */
-    @EventHandler(priority = EventPriority.HIGH)
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
-        // Only check if there's actual movement (not just head rotation)
-        if (event.getTo().getBlockX() == event.getFrom().getBlockX() &&
-                event.getTo().getBlockY() == event.getFrom().getBlockY() &&
-                event.getTo().getBlockZ() == event.getFrom().getBlockZ()) {
-            return;
-        }
+        Location to = event.getTo();
 
+        // Players in worlds without an active KOTH skip all region work
+        KOTHManager kothManager = plugin.getKothManager();
+        if (!kothManager.hasActiveKOTHs(to.getWorld())) return;
+
+        // Moves within the last seen block are dropped by the tracker's cached block key
+        kothManager.updatePlayerPosition(event.getPlayer(), to, false);
+    }
+
+    /**
+     * Handles player teleports into or out of KOTH regions
+     * @param event PlayerTeleportEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        KOTHManager kothManager = plugin.getKothManager();
+        if (!kothManager.hasActiveKOTHs(event.getFrom().getWorld())
+                && !kothManager.hasActiveKOTHs(event.getTo().getWorld())) return;
+
+        kothManager.updatePlayerPosition(event.getPlayer(), event.getTo(), true);
+    }
+
+    /**
+     * Handles players riding vehicles, which do not fire PlayerMoveEvent
+     * @param event VehicleMoveEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        Entity passenger = event.getVehicle().getPassenger();
+        if (!(passenger instanceof Player)) return;
+
+        Location to = event.getTo();
+        KOTHManager kothManager = plugin.getKothManager();
+        if (!kothManager.hasActiveKOTHs(to.getWorld())) return;
+
+        kothManager.updatePlayerPosition((Player) passenger, to, true);
+    }
+
+    /**
+     * Handles players joining inside a KOTH region
+     * @param event PlayerJoinEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        KOTHManager kothManager = plugin.getKothManager();
+        if (!kothManager.hasActiveKOTHs(player.getWorld())) return;
 
-        // Check all active KOTHs
-        for (KOTH koth : plugin.getKothManager().getKOTHs().values()) {
-            if (!koth.isActive()) continue;
-
-            ProtectedRegion region = koth.getRegion();
-            boolean wasInRegion = isInRegion(event.getFrom(), region);
-            boolean isInRegion = isInRegion(event.getTo(), region);
-
-            // Player entered region
-            if (!wasInRegion && isInRegion) {
-                handleRegionEnter(player, koth);
-            }
-            // Player left region
-            else if (wasInRegion && !isInRegion) {
-                handleRegionLeave(player, koth);
-            }
-        }
+        kothManager.updatePlayerPosition(player, player.getLocation(), true);
     }
 
     /**
      * Handles player quit event
      * @param event PlayerQuitEvent
      */
-    @EventHandler(priority = EventPriority.HIGH)
+    @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
-
-        // Check if player was capturing any KOTH
-        for (KOTH koth : plugin.getKothManager().getKOTHs().values()) {
-            if (koth.isActive() && player.getName().equals(koth.getCurrentCapturer())) {
-                koth.setCurrentCapturer(null);
-                break;
-            }
-        }
+        plugin.getKothManager().handleQuit(event.getPlayer());
     }
 
     /**
-     * Handles when a player enters a KOTH region
-     * @param player Player who entered
-     * @param koth KOTH that was entered
+     * Dead players no longer count towards a KOTH
+     * @param event PlayerDeathEvent
      */
-    private void handleRegionEnter(Player player, KOTH koth) {
-        // Check if region is already being captured
-        if (koth.getCurrentCapturer() == null) {
-            koth.setCurrentCapturer(player.getName());
-            player.sendMessage(plugin.getConfigManager().getMessage("start-capture"));
-        }
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        plugin.getKothManager().removePlayer(event.getEntity());
     }
 
     /**
-     * Handles when a player leaves a KOTH region
-     * @param player Player who left
-     * @param koth KOTH that was left
+     * Handles players respawning inside a KOTH region
+     * @param event PlayerRespawnEvent
      */
-    private void handleRegionLeave(Player player, KOTH koth) {
-        // Check if this player was the capturer
-        if (player.getName().equals(koth.getCurrentCapturer())) {
-            koth.setCurrentCapturer(null);
-            player.sendMessage(plugin.getConfigManager().getMessage("leave-capture"));
-        }
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        KOTHManager kothManager = plugin.getKothManager();
+        if (!kothManager.hasActiveKOTHs(event.getRespawnLocation().getWorld())) return;
+
+        kothManager.updatePlayerPosition(event.getPlayer(), event.getRespawnLocation(), true);
     }
 
     /**
-     * Checks if a location is within a WorldGuard region
-     * @param location Location to check
-     * @param region Region to check against
-     * @return true if location is in region
+     * Handles players changing worlds by any means
+     * @param event PlayerChangedWorldEvent
      */
-    private boolean isInRegion(org.bukkit.Location location, ProtectedRegion region) {
-        return region.contains(
-                location.getBlockX(),
-                location.getBlockY(),
-                location.getBlockZ()
-        );
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        Player player = event.getPlayer();
+        KOTHManager kothManager = plugin.getKothManager();
+        if (!kothManager.hasActiveKOTHs(event.getFrom())
+                && !kothManager.hasActiveKOTHs(player.getWorld())) return;
+
+        kothManager.updatePlayerPosition(player, player.getLocation(), true);
     }
-}
\ No newline at end of file
+}
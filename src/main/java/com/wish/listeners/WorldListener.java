@@ -0,0 +1,46 @@
+package com.wish.listeners;
+
+import com.wish.MiniKOTH;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * WorldListener
+ * Binds KOTHs to their regions when their world loads after the plugin,
+ * and releases them again when their world is unloaded.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class WorldListener implements Listener {
+    private final MiniKOTH plugin;
+
+    /**
+     * Constructor for WorldListener
+     * @param plugin Instance of the main plugin class
+     */
+    public WorldListener(MiniKOTH plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Resolves KOTHs waiting for a world
+     * @param event WorldLoadEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        plugin.getKothManager().onWorldLoad(event.getWorld());
+    }
+
+    /**
+     * Turns the KOTHs of an unloaded world back into placeholders
+     * @param event WorldUnloadEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        plugin.getKothManager().onWorldUnload(event.getWorld());
+    }
+}
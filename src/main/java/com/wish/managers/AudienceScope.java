@@ -0,0 +1,48 @@
+package com.wish.managers;
+
+/**
+ * AudienceScope
+ * Which players receive a KOTH broadcast
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public enum AudienceScope {
+    /**
+     * Every online player
+     */
+    GLOBAL,
+
+    /**
+     * Players in the same world as the KOTH
+     */
+    WORLD,
+
+    /**
+     * Players within the configured radius of the KOTH region
+     */
+    RADIUS,
+
+    /**
+     * Players who turned notifications on with /minikoth notify
+     */
+    OPT_IN;
+
+    /**
+     * Parses an audience scope from configuration
+     *
+     * @param value Configured value, e.g. "world" or "opt-in"
+     * @return Matching scope, GLOBAL if unknown
+     */
+    public static AudienceScope fromString(String value) {
+        if (value != null) {
+            String normalized = value.trim().replace('-', '_');
+            for (AudienceScope scope : values()) {
+                if (scope.name().equalsIgnoreCase(normalized)) {
+                    return scope;
+                }
+            }
+        }
+        return GLOBAL;
+    }
+}
@@ -0,0 +1,236 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * CaptureEngine
+ * Single shared task that services every active KOTH once per second.
+ * KOTHs are spread over a 20-slot timing wheel so each server tick only
+ * handles the KOTHs whose second boundary falls on it.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class CaptureEngine {
+    private static final int WHEEL_SIZE = 20;
+
+    private final MiniKOTH plugin;
+    private final Consumer<KOTH> handler;
+    private final Slot[] wheel;
+    private final Map<KOTH, Node> nodes;
+    private BukkitRunnable task;
+    private int cursor;
+
+    // Per-pass statistics
+    private long passes;
+    private long totalPassNanos;
+    private long lastPassNanos;
+    private long maxPassNanos;
+    private int lastPassServiced;
+
+    /**
+     * Constructor for CaptureEngine
+     *
+     * @param plugin Instance of the main plugin class
+     * @param handler Called once per second for every active KOTH
+     */
+    public CaptureEngine(MiniKOTH plugin, Consumer<KOTH> handler) {
+        this.plugin = plugin;
+        this.handler = handler;
+        this.wheel = new Slot[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Slot();
+        }
+        this.nodes = new HashMap<>();
+    }
+
+    /**
+     * Adds a KOTH to the wheel. It is first serviced one second from now.
+     *
+     * @param koth KOTH to service
+     */
+    public void add(KOTH koth) {
+        if (nodes.containsKey(koth)) return;
+
+        Node node = new Node(koth);
+        wheel[cursor].append(node);
+        nodes.put(koth, node);
+
+        if (task == null) {
+            start();
+        }
+    }
+
+    /**
+     * Removes a KOTH from the wheel
+     *
+     * @param koth KOTH to stop servicing
+     */
+    public void remove(KOTH koth) {
+        Node node = nodes.remove(koth);
+        if (node == null) return;
+
+        node.slot.unlink(node);
+
+        if (nodes.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * Stops the engine and forgets every KOTH
+     */
+    public void shutdown() {
+        for (Node node : nodes.values()) {
+            node.slot.unlink(node);
+        }
+        nodes.clear();
+        stop();
+    }
+
+    /**
+     * Resets the collected per-pass statistics
+     */
+    public void resetStats() {
+        passes = 0;
+        totalPassNanos = 0;
+        lastPassNanos = 0;
+        maxPassNanos = 0;
+        lastPassServiced = 0;
+    }
+
+    private void start() {
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                pass();
+            }
+        };
+        task.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    private void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Advances the wheel by one tick and services the KOTHs in that slot
+     */
+    private void pass() {
+        long startTime = System.nanoTime();
+        cursor = (cursor + 1) % WHEEL_SIZE;
+
+        int serviced = 0;
+        Slot slot = wheel[cursor];
+        Node last = slot.tail;
+        Node node = slot.head;
+        while (node != null) {
+            // Grab next first, the handler may remove the current KOTH
+            Node next = node.next;
+            if (node.slot != null) {
+                try {
+                    handler.accept(node.koth);
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Error ticking KOTH " + node.koth.getName() + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+                serviced++;
+            }
+            // KOTHs added during this pass wait for the next rotation
+            if (node == last) break;
+            node = next;
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        passes++;
+        totalPassNanos += elapsed;
+        lastPassNanos = elapsed;
+        lastPassServiced = serviced;
+        if (elapsed > maxPassNanos) {
+            maxPassNanos = elapsed;
+        }
+    }
+
+    // Getters
+    public int getActiveCount() {
+        return nodes.size();
+    }
+
+    public long getPasses() {
+        return passes;
+    }
+
+    public long getLastPassNanos() {
+        return lastPassNanos;
+    }
+
+    public long getMaxPassNanos() {
+        return maxPassNanos;
+    }
+
+    public long getAveragePassNanos() {
+        return passes == 0 ? 0 : totalPassNanos / passes;
+    }
+
+    public int getLastPassServiced() {
+        return lastPassServiced;
+    }
+
+    /**
+     * One bucket of the timing wheel, a doubly linked list of KOTH nodes
+     */
+    private static class Slot {
+        private Node head;
+        private Node tail;
+
+        void append(Node node) {
+            node.slot = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail != null) {
+                tail.next = node;
+            } else {
+                head = node;
+            }
+            tail = node;
+        }
+
+        void unlink(Node node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                tail = node.prev;
+            }
+            // Keep node.next so an in-progress pass can continue past it
+            node.prev = null;
+            node.slot = null;
+        }
+    }
+
+    /**
+     * Wheel entry for a single active KOTH
+     */
+    private static class Node {
+        private final KOTH koth;
+        private Slot slot;
+        private Node prev;
+        private Node next;
+
+        Node(KOTH koth) {
+            this.koth = koth;
+        }
+    }
+}
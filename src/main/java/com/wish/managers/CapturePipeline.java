@@ -0,0 +1,296 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import com.wish.utils.RegionBounds;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CapturePipeline
+ * Optional mode that moves KOTH occupancy evaluation off the main thread.
+ * Every tick the main thread copies player positions into primitive arrays,
+ * a worker pool tests them against every active KOTH, and the results are
+ * applied on a later tick.
+ *
+ * Ordering guarantees:
+ * - At most one snapshot is in flight, so results are applied in the order
+ *   their snapshots were taken and never overwrite newer state.
+ * - Results are tagged with a generation and dropped if the pipeline was
+ *   restarted or the KOTH's region changed since the snapshot.
+ * - Results are applied on the main thread in KOTH name order, and capture
+ *   state transitions still only happen in the main-thread capture tick.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class CapturePipeline {
+    private final MiniKOTH plugin;
+    private final KOTHManager kothManager;
+    private Snapshot snapshot;
+    private final AtomicReference<Result> completed;
+    private final Location scratchLocation;
+    private ExecutorService workers;
+    private BukkitRunnable task;
+    private long generation;
+    private boolean inFlight;
+
+    /**
+     * Constructor for CapturePipeline
+     *
+     * @param plugin Instance of the main plugin class
+     * @param kothManager Manager owning the active KOTHs
+     */
+    public CapturePipeline(MiniKOTH plugin, KOTHManager kothManager) {
+        this.plugin = plugin;
+        this.kothManager = kothManager;
+        this.snapshot = new Snapshot();
+        this.completed = new AtomicReference<>();
+        this.scratchLocation = new Location(null, 0, 0, 0);
+    }
+
+    /**
+     * Starts the per-tick snapshot task if it is not already running
+     */
+    public void start() {
+        if (task != null) return;
+
+        if (workers == null) {
+            int threads = plugin.getConfigManager().getAsyncCaptureThreads();
+            AtomicInteger counter = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "MiniKOTH-Capture-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        // Results of an earlier run must never be applied
+        generation++;
+        inFlight = false;
+        completed.set(null);
+
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+        task.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Stops the per-tick snapshot task, dropping any pending result
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        generation++;
+        inFlight = false;
+        completed.set(null);
+        // A dropped job may still be reading the old snapshot
+        snapshot = new Snapshot();
+    }
+
+    /**
+     * Stops the pipeline and its worker threads
+     */
+    public void shutdown() {
+        stop();
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                workers.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            workers = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return task != null;
+    }
+
+    /**
+     * Applies the last finished result and takes the next snapshot
+     */
+    private void tick() {
+        if (!plugin.getConfigManager().isAsyncCapture()) {
+            stop();
+            kothManager.resyncOccupancy();
+            return;
+        }
+
+        Result result = completed.getAndSet(null);
+        if (result != null && result.generation == generation) {
+            apply(result);
+            inFlight = false;
+        }
+
+        if (!inFlight) {
+            takeSnapshot();
+            if (snapshot.kothCount > 0) {
+                inFlight = true;
+                submit(generation);
+            }
+        }
+    }
+
+    /**
+     * Copies player positions and active KOTH bounds on the main thread
+     */
+    private void takeSnapshot() {
+        List<KOTH> active = kothManager.getActiveKOTHs();
+        active.sort(Comparator.comparing(KOTH::getName));
+
+        int kothCount = active.size();
+        if (snapshot.koths.length < kothCount) {
+            snapshot.koths = new KOTH[kothCount];
+            snapshot.bounds = new RegionBounds[kothCount];
+        }
+        for (int i = 0; i < kothCount; i++) {
+            KOTH koth = active.get(i);
+            snapshot.koths[i] = koth;
+            snapshot.bounds[i] = koth.getBounds();
+        }
+        // Release references to KOTHs that are no longer active
+        Arrays.fill(snapshot.koths, kothCount, snapshot.koths.length, null);
+        Arrays.fill(snapshot.bounds, kothCount, snapshot.bounds.length, null);
+        snapshot.kothCount = kothCount;
+
+        Collection<? extends Player> players = plugin.getServer().getOnlinePlayers();
+        snapshot.ensurePlayerCapacity(players.size());
+
+        int size = 0;
+        for (Player player : players) {
+            if (player.isDead()) continue;
+
+            Location location = player.getLocation(scratchLocation);
+            snapshot.playerIds[size] = player.getUniqueId();
+            snapshot.worlds[size] = RegionBounds.worldId(location.getWorld());
+            snapshot.xs[size] = location.getBlockX();
+            snapshot.ys[size] = location.getBlockY();
+            snapshot.zs[size] = location.getBlockZ();
+            size++;
+        }
+        snapshot.playerCount = size;
+    }
+
+    /**
+     * Evaluates the current snapshot on the worker pool, one job per KOTH
+     *
+     * @param jobGeneration Generation the result will be tagged with
+     */
+    private void submit(long jobGeneration) {
+        Snapshot data = snapshot;
+        int kothCount = data.kothCount;
+        KOTH[] koths = Arrays.copyOf(data.koths, kothCount);
+        RegionBounds[] bounds = Arrays.copyOf(data.bounds, kothCount);
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<UUID[]>[] jobs = new CompletableFuture[kothCount];
+        for (int i = 0; i < kothCount; i++) {
+            RegionBounds regionBounds = bounds[i];
+            jobs[i] = CompletableFuture.supplyAsync(() -> evaluate(data, regionBounds), workers);
+        }
+
+        CompletableFuture.allOf(jobs).whenComplete((ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("Error evaluating KOTH capture: " + error.getMessage());
+                completed.set(new Result(jobGeneration, new KOTH[0], new RegionBounds[0], new UUID[0][]));
+                return;
+            }
+
+            UUID[][] occupants = new UUID[kothCount][];
+            for (int i = 0; i < kothCount; i++) {
+                occupants[i] = jobs[i].join();
+            }
+            completed.set(new Result(jobGeneration, koths, bounds, occupants));
+        });
+    }
+
+    /**
+     * Finds the players of a snapshot that stand inside one KOTH.
+     * Runs on a worker thread and only reads the snapshot.
+     */
+    private static UUID[] evaluate(Snapshot data, RegionBounds bounds) {
+        List<UUID> occupants = new ArrayList<>();
+        for (int i = 0; i < data.playerCount; i++) {
+            if (bounds.contains(data.worlds[i], data.xs[i], data.ys[i], data.zs[i])) {
+                occupants.add(data.playerIds[i]);
+            }
+        }
+        return occupants.toArray(new UUID[0]);
+    }
+
+    /**
+     * Applies a finished result on the main thread in KOTH name order
+     */
+    private void apply(Result result) {
+        for (int i = 0; i < result.koths.length; i++) {
+            KOTH koth = result.koths[i];
+            // Skip KOTHs that ended or had their region rebuilt meanwhile
+            if (!koth.isActive() || koth.getBounds() != result.bounds[i]) continue;
+
+            koth.replaceOccupants(result.occupants[i]);
+        }
+    }
+
+    /**
+     * Reusable primitive copy of player positions and active KOTH bounds
+     */
+    private static class Snapshot {
+        private KOTH[] koths = new KOTH[0];
+        private RegionBounds[] bounds = new RegionBounds[0];
+        private int kothCount;
+        private UUID[] playerIds = new UUID[0];
+        private int[] worlds = new int[0];
+        private int[] xs = new int[0];
+        private int[] ys = new int[0];
+        private int[] zs = new int[0];
+        private int playerCount;
+
+        void ensurePlayerCapacity(int capacity) {
+            if (playerIds.length >= capacity) return;
+
+            playerIds = new UUID[capacity];
+            worlds = new int[capacity];
+            xs = new int[capacity];
+            ys = new int[capacity];
+            zs = new int[capacity];
+        }
+    }
+
+    /**
+     * Occupants computed for one snapshot
+     */
+    private static class Result {
+        private final long generation;
+        private final KOTH[] koths;
+        private final RegionBounds[] bounds;
+        private final UUID[][] occupants;
+
+        Result(long generation, KOTH[] koths, RegionBounds[] bounds, UUID[][] occupants) {
+            this.generation = generation;
+            this.koths = koths;
+            this.bounds = bounds;
+            this.occupants = occupants;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.wish.managers;
+
+import com.wish.utils.MessageTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * ConfigDiff
+ * What changed between two config snapshots: which messages and settings
+ * differ and whether the rewards or schedules were edited. Computed off
+ * the main thread so a reload only applies the parts that changed.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class ConfigDiff {
+    private final Set<String> messages;
+    private final Set<String> settings;
+    private final boolean rewardsChanged;
+    private final boolean schedulesChanged;
+
+    private ConfigDiff(Set<String> messages, Set<String> settings, boolean rewardsChanged, boolean schedulesChanged) {
+        this.messages = Collections.unmodifiableSet(messages);
+        this.settings = Collections.unmodifiableSet(settings);
+        this.rewardsChanged = rewardsChanged;
+        this.schedulesChanged = schedulesChanged;
+    }
+
+    /**
+     * Compares two snapshots
+     *
+     * @param previous Snapshot that was live
+     * @param next Newly loaded snapshot
+     * @return Differences between them
+     */
+    public static ConfigDiff between(ConfigSnapshot previous, ConfigSnapshot next) {
+        Set<String> messages = new LinkedHashSet<>();
+        diffKeys(previous.getMessages(), next.getMessages(), messages);
+
+        Set<String> settings = new LinkedHashSet<>();
+        compare("prefix", previous.getPrefix(), next.getPrefix(), settings);
+        compare("capture-time", previous.getCaptureTime(), next.getCaptureTime(), settings);
+        compare("message-interval", previous.getMessageInterval(), next.getMessageInterval(), settings);
+        compare("timing-mode", previous.getTimingMode(), next.getTimingMode(), settings);
+        compare("async-capture", previous.isAsyncCapture(), next.isAsyncCapture(), settings);
+        compare("async-capture-threads", previous.getAsyncCaptureThreads(), next.getAsyncCaptureThreads(), settings);
+        compare("region-check-interval", previous.getRegionCheckInterval(), next.getRegionCheckInterval(), settings);
+        compare("message-budget", previous.getMessageBudget(), next.getMessageBudget(), settings);
+        compare("broadcast-radius", previous.getBroadcastRadius(), next.getBroadcastRadius(), settings);
+        compare("audiences", previous.getAudiences(), next.getAudiences(), settings);
+        compare("chest-despawn-time", previous.getChestDespawnTime(), next.getChestDespawnTime(), settings);
+        compare("save-delay", previous.getSaveDelay(), next.getSaveDelay(), settings);
+        compare("storage", previous.getStorageType(), next.getStorageType(), settings);
+        compare("auto-reload", previous.isAutoReload(), next.isAutoReload(), settings);
+        compare("auto-reload-debounce", previous.getAutoReloadDebounce(), next.getAutoReloadDebounce(), settings);
+
+        boolean rewardsChanged = !previous.getRewardCommands().equals(next.getRewardCommands())
+                || !previous.getLootTable().equals(next.getLootTable());
+        boolean schedulesChanged = previous.areSchedulesEnabled() != next.areSchedulesEnabled()
+                || !previous.getZone().equals(next.getZone())
+                || !previous.getScheduledTimes().equals(next.getScheduledTimes());
+
+        return new ConfigDiff(messages, settings, rewardsChanged, schedulesChanged);
+    }
+
+    private static void diffKeys(Map<String, MessageTemplate> previous, Map<String, MessageTemplate> next,
+                                 Set<String> changed) {
+        for (Map.Entry<String, MessageTemplate> entry : next.entrySet()) {
+            if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!next.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+    }
+
+    private static void compare(String name, Object previous, Object next, Set<String> changed) {
+        if (!Objects.equals(previous, next)) {
+            changed.add(name);
+        }
+    }
+
+    /**
+     * Gets the number of changed messages, settings and sections
+     *
+     * @return Number of changes
+     */
+    public int size() {
+        return messages.size() + settings.size() + (rewardsChanged ? 1 : 0) + (schedulesChanged ? 1 : 0);
+    }
+
+    // Getters
+    public Set<String> getMessages() {
+        return messages;
+    }
+
+    public Set<String> getSettings() {
+        return settings;
+    }
+
+    public boolean isRewardsChanged() {
+        return rewardsChanged;
+    }
+
+    public boolean isSchedulesChanged() {
+        return schedulesChanged;
+    }
+}
@@ -1,16 +1,30 @@
 package com.wish.managers;
 
 import com.wish.MiniKOTH;
-import org.bukkit.ChatColor;
+import com.wish.storage.StorageType;
+import com.wish.utils.LootTable;
+import org.bukkit.configuration.Configuration;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * ConfigManager
  * Handles all configuration-related operations for the MiniKOTH plugin
  * including loading, saving, and accessing configuration values.
+ * Values are read from an immutable ConfigSnapshot that is replaced as a
+ * whole on reload, so readers always see one consistent configuration.
  *
  * @author wwishh
  * @version 0.0.1
@@ -18,6 +32,7 @@ import java.util.List;
 public class ConfigManager {
     private final MiniKOTH plugin;
     private FileConfiguration config;
+    private volatile ConfigSnapshot snapshot;
 
     /**
      * Constructor for ConfigManager
@@ -29,12 +44,117 @@ public class ConfigManager {
     }
 
     /**
-     * Loads or reloads the configuration file
+     * Loads or reloads the configuration file on the calling thread
      */
     public void loadConfig() {
         plugin.saveDefaultConfig();
         plugin.reloadConfig();
         this.config = plugin.getConfig();
+        publish(ConfigSnapshot.load(config));
+    }
+
+    /**
+     * Reloads the configuration file, parsing, validating and diffing it
+     * off the main thread. The new configuration and snapshot are swapped
+     * in on the main thread before the callback runs. If config.yml cannot
+     * be read or is not valid YAML the current configuration is kept.
+     *
+     * @param onComplete Called on the main thread with what changed, once the new snapshot is live
+     * @param onFailure Called on the main thread with the error if config.yml could not be loaded
+     */
+    public void reloadAsync(Consumer<ConfigDiff> onComplete, Consumer<String> onFailure) {
+        // Changes still waiting to be written would be lost by reading the file
+        plugin.getPersistenceService().flushNow();
+        plugin.saveDefaultConfig();
+        File file = new File(plugin.getDataFolder(), "config.yml");
+        Configuration defaults = config.getDefaults();
+        ConfigSnapshot previous = snapshot;
+
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                // loadConfiguration would log the error and return an empty config
+                YamlConfiguration loaded = new YamlConfiguration();
+                try {
+                    loaded.loadFromString(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+                } catch (IOException | InvalidConfigurationException e) {
+                    String error = e.getMessage();
+                    new BukkitRunnable() {
+                        @Override
+                        public void run() {
+                            onFailure.accept(error);
+                        }
+                    }.runTask(plugin);
+                    return;
+                }
+                if (defaults != null) {
+                    loaded.setDefaults(defaults);
+                }
+                ConfigSnapshot next = ConfigSnapshot.load(loaded);
+                ConfigDiff diff = ConfigDiff.between(previous, next);
+
+                new BukkitRunnable() {
+                    @Override
+                    public void run() {
+                        ConfigSnapshot installed = install(loaded, next);
+                        onComplete.accept(installed == next ? diff : ConfigDiff.between(previous, installed));
+                    }
+                }.runTask(plugin);
+            }
+        }.runTaskAsynchronously(plugin);
+    }
+
+    /**
+     * Makes a configuration loaded off the main thread the live one.
+     * Changes not yet written to config.yml are copied onto it and
+     * written again, the file wins for every other path.
+     *
+     * @param loaded Configuration read from config.yml, with defaults attached
+     * @param next Snapshot parsed from it
+     * @return Installed snapshot, next unless unsaved changes were copied
+     */
+    public ConfigSnapshot install(YamlConfiguration loaded, ConfigSnapshot next) {
+        PersistenceService persistence = plugin.getPersistenceService();
+        List<String> unsaved = persistence.carryOver(loaded);
+        if (!unsaved.isEmpty()) {
+            next = ConfigSnapshot.load(loaded);
+        }
+
+        plugin.swapConfig(loaded);
+        config = loaded;
+        persistence.reset();
+        for (String path : unsaved) {
+            persistence.markDirty(path);
+        }
+        publish(next);
+        return next;
+    }
+
+    /**
+     * Rebuilds the snapshot after a setting was changed in memory
+     */
+    private void refreshSnapshot() {
+        publish(ConfigSnapshot.load(config));
+    }
+
+    /**
+     * Makes a snapshot the current one and logs its validation warnings
+     *
+     * @param next Snapshot to publish
+     */
+    private void publish(ConfigSnapshot next) {
+        for (String warning : next.getWarnings()) {
+            plugin.getLogger().warning("Config: " + warning);
+        }
+        this.snapshot = next;
+    }
+
+    /**
+     * Gets the current immutable configuration snapshot
+     * @return Current snapshot, safe to keep and read from any thread
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -44,17 +164,7 @@ public class ConfigManager {
      * @return Formatted message with color codes translated
      */
     public String getMessage(String path, String... replacements) {
-        String message = config.getString("messages." + path, "Message not found: " + path);
-        message = getPrefix() + " " + message;
-
-        // Replace placeholders
-        for (int i = 0; i < replacements.length; i += 2) {
-            if (i + 1 < replacements.length) {
-                message = message.replace("{" + replacements[i] + "}", replacements[i + 1]);
-            }
-        }
-
-        return ChatColor.translateAlternateColorCodes('&', message);
+        return snapshot.getMessage(path, replacements);
     }
 
     /**
@@ -62,8 +172,7 @@ public class ConfigManager {
      * @return Formatted prefix string
      */
     public String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-                config.getString("settings.prefix", "&8[&bMiniKOTH&8]"));
+        return snapshot.getPrefix();
     }
 
     /**
@@ -71,7 +180,7 @@ public class ConfigManager {
      * @return Capture time in seconds
      */
     public int getCaptureTime() {
-        return config.getInt("settings.capture-time", 300);
+        return snapshot.getCaptureTime();
     }
 
     /**
@@ -79,7 +188,64 @@ public class ConfigManager {
      * @return Message interval in seconds
      */
     public int getMessageInterval() {
-        return config.getInt("settings.message-interval", 30);
+        return snapshot.getMessageInterval();
+    }
+
+    /**
+     * Gets how many broadcast lines a player receives per tick at most
+     * @return Message budget per player per tick
+     */
+    public int getMessageBudget() {
+        return snapshot.getMessageBudget();
+    }
+
+    /**
+     * Gets which players receive a broadcast message type
+     * @param messageKey Message key, e.g. time-remaining
+     * @return Configured audience scope, global if not set
+     */
+    public AudienceScope getAudienceScope(String messageKey) {
+        return snapshot.getAudienceScope(messageKey);
+    }
+
+    /**
+     * Gets the distance from a KOTH region within which radius-scoped broadcasts are received
+     * @return Broadcast radius in blocks
+     */
+    public double getBroadcastRadius() {
+        return snapshot.getBroadcastRadius();
+    }
+
+    /**
+     * Gets how the remaining time of active KOTHs is counted
+     * @return Configured timing mode
+     */
+    public TimingMode getTimingMode() {
+        return snapshot.getTimingMode();
+    }
+
+    /**
+     * Gets whether KOTH occupancy is evaluated off the main thread
+     * @return true if the async capture pipeline is enabled
+     */
+    public boolean isAsyncCapture() {
+        return snapshot.isAsyncCapture();
+    }
+
+    /**
+     * Gets the number of worker threads for the async capture pipeline
+     * @return Worker thread count
+     */
+    public int getAsyncCaptureThreads() {
+        return snapshot.getAsyncCaptureThreads();
+    }
+
+    /**
+     * Gets how often active KOTHs re-check their WorldGuard region for redefinitions
+     * @return Region check interval in seconds
+     */
+    public int getRegionCheckInterval() {
+        return snapshot.getRegionCheckInterval();
     }
 
     /**
@@ -87,15 +253,55 @@ public class ConfigManager {
      * @return Chest despawn time in seconds
      */
     public int getChestDespawnTime() {
-        return config.getInt("settings.chest-despawn-time", 300);
+        return snapshot.getChestDespawnTime();
+    }
+
+    /**
+     * Gets how long config changes are collected before being written
+     * @return Save delay in ticks
+     */
+    public int getSaveDelay() {
+        return snapshot.getSaveDelay();
+    }
+
+    /**
+     * Gets the backend KOTHs are stored in, only read when the plugin is enabled
+     * @return Configured storage type
+     */
+    public StorageType getStorageType() {
+        return snapshot.getStorageType();
+    }
+
+    /**
+     * Gets whether config.yml is reloaded automatically when it changes on disk
+     * @return true if the config watcher should run
+     */
+    public boolean isAutoReload() {
+        return snapshot.isAutoReload();
+    }
+
+    /**
+     * Gets how long config.yml must stay unchanged before an automatic reload
+     * @return Debounce time in milliseconds
+     */
+    public int getAutoReloadDebounce() {
+        return snapshot.getAutoReloadDebounce();
     }
 
     /**
      * Gets the list of reward commands
-     * @return List of reward commands
+     * @return Unmodifiable list of reward commands
      */
     public List<String> getRewardCommands() {
-        return config.getStringList("rewards.commands");
+        return snapshot.getRewardCommands();
+    }
+
+    /**
+     * Gets the reward chest loot table compiled from rewards.chest
+     * @return Compiled loot table, empty if chest rewards are disabled
+     */
+    public LootTable getLootTable() {
+        return snapshot.getLootTable();
     }
 
     /**
@@ -103,7 +309,7 @@ public class ConfigManager {
      * @return true if schedules are enabled
      */
     public boolean areSchedulesEnabled() {
-        return config.getBoolean("schedules.enabled", true);
+        return snapshot.areSchedulesEnabled();
     }
 
     /**
@@ -111,29 +317,77 @@ public class ConfigManager {
      * @return Timezone string
      */
     public String getTimezone() {
-        return config.getString("schedules.timezone", "America/Argentina/Buenos_Aires");
+        return snapshot.getTimezone();
+    }
+
+    /**
+     * Gets the timezone for schedules
+     * @return Parsed timezone
+     */
+    public ZoneId getZone() {
+        return snapshot.getZone();
     }
 
     /**
      * Gets the list of scheduled times
-     * @return List of scheduled times
+     * @return Unmodifiable list of valid scheduled times
      */
     public List<String> getScheduledTimes() {
-        return config.getStringList("schedules.times");
+        return snapshot.getScheduledTimes();
+    }
+
+    /**
+     * Gets the scheduled times as written in config.yml, including entries
+     * that failed validation, so edits do not silently drop them
+     * @return Modifiable copy of the configured times
+     */
+    public List<String> getConfiguredTimes() {
+        return new ArrayList<>(config.getStringList("schedules.times"));
+    }
+
+    /**
+     * Replaces the reward commands and queues a config save
+     * @param commands New reward commands
+     */
+    public void setRewardCommands(List<String> commands) {
+        config.set("rewards.commands", new ArrayList<>(commands));
+        refreshSnapshot();
+        plugin.getPersistenceService().markDirty("rewards.commands");
+    }
+
+    /**
+     * Replaces the scheduled times and queues a config save
+     * @param times New scheduled times in HH:mm format
+     */
+    public void setScheduledTimes(List<String> times) {
+        config.set("schedules.times", new ArrayList<>(times));
+        refreshSnapshot();
+        plugin.getPersistenceService().markDirty("schedules.times");
+    }
+
+    /**
+     * Enables or disables schedules and queues a config save
+     * @param enabled Whether schedules should run
+     */
+    public void setSchedulesEnabled(boolean enabled) {
+        config.set("schedules.enabled", enabled);
+        refreshSnapshot();
+        plugin.getPersistenceService().markDirty("schedules.enabled");
     }
 
     /**
-     * Gets the KOTHs configuration section
-     * @return ConfigurationSection containing KOTH data
+     * Gets the KOTHs section of config.yml, only used to migrate KOTHs saved
+     * before they were moved to their own storage
+     * @return ConfigurationSection containing legacy KOTH data, or null
      */
     public ConfigurationSection getKOTHsSection() {
         return config.getConfigurationSection("koths");
     }
 
     /**
-     * Saves the current configuration to file
+     * Writes pending configuration changes to file and waits for the write
      */
     public void saveConfig() {
-        plugin.saveConfig();
+        plugin.getPersistenceService().flushNow();
     }
 }
\ No newline at end of file
@@ -0,0 +1,314 @@
+package com.wish.managers;
+
+import com.wish.storage.StorageType;
+import com.wish.utils.LootTable;
+import com.wish.utils.MessageTemplate;
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ConfigSnapshot
+ * Immutable, validated view of the plugin settings, messages, reward
+ * commands, chest loot table and schedules, parsed once per load. Safe
+ * to read from any thread; a reload builds a new snapshot instead of
+ * changing this one.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class ConfigSnapshot {
+    private static final String DEFAULT_TIMEZONE = "America/Argentina/Buenos_Aires";
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final String prefix;
+    private final Map<String, MessageTemplate> messages;
+    private final int captureTime;
+    private final int messageInterval;
+    private final TimingMode timingMode;
+    private final boolean asyncCapture;
+    private final int asyncCaptureThreads;
+    private final int regionCheckInterval;
+    private final int messageBudget;
+    private final double broadcastRadius;
+    private final Map<String, AudienceScope> audiences;
+    private final int chestDespawnTime;
+    private final int saveDelay;
+    private final StorageType storageType;
+    private final boolean autoReload;
+    private final int autoReloadDebounce;
+    private final List<String> rewardCommands;
+    private final LootTable lootTable;
+    private final boolean schedulesEnabled;
+    private final String timezone;
+    private final ZoneId zone;
+    private final List<String> scheduledTimes;
+    private final List<String> warnings;
+
+    private ConfigSnapshot(Configuration config) {
+        List<String> problems = new ArrayList<>();
+
+        this.prefix = ChatColor.translateAlternateColorCodes('&',
+                config.getString("settings.prefix", "&8[&bMiniKOTH&8]"));
+        this.messages = Collections.unmodifiableMap(compileMessages(config, prefix));
+
+        this.captureTime = positive(config, "settings.capture-time", 300, problems);
+        this.messageInterval = atLeast(config, "settings.message-interval", 30, 0, problems);
+
+        String mode = config.getString("settings.timing-mode", "ticks");
+        this.timingMode = TimingMode.fromString(mode);
+        if (!timingMode.name().equalsIgnoreCase(mode.trim())) {
+            problems.add("Unknown settings.timing-mode '" + mode + "', using ticks");
+        }
+
+        this.asyncCapture = config.getBoolean("settings.async-capture", false);
+        this.asyncCaptureThreads = positive(config, "settings.async-capture-threads", 2, problems);
+        this.regionCheckInterval = positive(config, "settings.region-check-interval", 10, problems);
+        this.messageBudget = positive(config, "settings.message-budget", 3, problems);
+        this.broadcastRadius = Math.max(0, config.getDouble("settings.broadcast-radius", 100));
+        this.audiences = Collections.unmodifiableMap(loadAudiences(config));
+        this.chestDespawnTime = positive(config, "settings.chest-despawn-time", 300, problems);
+        this.saveDelay = atLeast(config, "settings.save-delay", 40, 0, problems);
+
+        this.autoReload = config.getBoolean("settings.auto-reload", false);
+        this.autoReloadDebounce = atLeast(config, "settings.auto-reload-debounce", 1000, 0, problems);
+
+        String storage = config.getString("settings.storage", "yaml");
+        this.storageType = StorageType.fromString(storage);
+        if (!storageType.name().equalsIgnoreCase(storage.trim())) {
+            problems.add("Unknown settings.storage '" + storage + "', using yaml");
+        }
+
+        this.rewardCommands = Collections.unmodifiableList(new ArrayList<>(config.getStringList("rewards.commands")));
+        this.lootTable = LootTable.compile(config.getConfigurationSection("rewards.chest"), problems);
+
+        this.schedulesEnabled = config.getBoolean("schedules.enabled", true);
+        String configuredZone = config.getString("schedules.timezone", DEFAULT_TIMEZONE);
+        ZoneId parsedZone;
+        try {
+            parsedZone = ZoneId.of(configuredZone);
+        } catch (RuntimeException e) {
+            problems.add("Invalid schedules.timezone '" + configuredZone + "', using " + DEFAULT_TIMEZONE);
+            configuredZone = DEFAULT_TIMEZONE;
+            parsedZone = ZoneId.of(DEFAULT_TIMEZONE);
+        }
+        this.timezone = configuredZone;
+        this.zone = parsedZone;
+
+        List<String> times = new ArrayList<>();
+        for (String time : config.getStringList("schedules.times")) {
+            try {
+                LocalTime.parse(time, TIME_FORMAT);
+                times.add(time);
+            } catch (DateTimeParseException e) {
+                problems.add("Ignoring invalid schedule time '" + time + "', use HH:mm");
+            }
+        }
+        this.scheduledTimes = Collections.unmodifiableList(times);
+
+        this.warnings = Collections.unmodifiableList(problems);
+    }
+
+    /**
+     * Parses and validates a configuration
+     *
+     * @param config Configuration to read, with defaults attached
+     * @return New snapshot
+     */
+    public static ConfigSnapshot load(Configuration config) {
+        return new ConfigSnapshot(config);
+    }
+
+    /**
+     * Compiles every messages.* entry, including nested ones and keys only
+     * present in the bundled defaults, into message templates
+     */
+    private static Map<String, MessageTemplate> compileMessages(Configuration config, String prefix) {
+        Set<String> paths = new LinkedHashSet<>();
+        collectMessagePaths(config.getDefaults(), paths);
+        collectMessagePaths(config, paths);
+
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        for (String path : paths) {
+            compiled.put(path, MessageTemplate.compile(prefix, config.getString("messages." + path)));
+        }
+        return compiled;
+    }
+
+    /**
+     * Adds the path of every string under messages to a set
+     *
+     * @param root Configuration to read, may be null
+     * @param paths Set to add message paths to
+     */
+    private static void collectMessagePaths(ConfigurationSection root, Set<String> paths) {
+        if (root == null) return;
+
+        ConfigurationSection section = root.getConfigurationSection("messages");
+        if (section == null) return;
+
+        for (String key : section.getKeys(true)) {
+            if (section.isString(key)) {
+                paths.add(key);
+            }
+        }
+    }
+
+    /**
+     * Reads the audience scope of every configured broadcast message type
+     */
+    private static Map<String, AudienceScope> loadAudiences(Configuration config) {
+        Map<String, AudienceScope> scopes = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("settings.audiences");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                scopes.put(key, AudienceScope.fromString(section.getString(key)));
+            }
+        }
+        return scopes;
+    }
+
+    private static int positive(Configuration config, String path, int fallback, List<String> problems) {
+        return atLeast(config, path, fallback, 1, problems);
+    }
+
+    private static int atLeast(Configuration config, String path, int fallback, int minimum, List<String> problems) {
+        int value = config.getInt(path, fallback);
+        if (value < minimum) {
+            problems.add(path + " must be at least " + minimum + ", using " + fallback);
+            return fallback;
+        }
+        return value;
+    }
+
+    /**
+     * Renders a message
+     *
+     * @param path Path to the message under messages
+     * @param replacements String pairs for placeholder replacement (key1, value1, key2, value2, ...)
+     * @return Formatted message with color codes translated
+     */
+    public String getMessage(String path, String... replacements) {
+        MessageTemplate template = messages.get(path);
+        if (template == null) {
+            return prefix + " Message not found: " + path;
+        }
+        return template.render(replacements);
+    }
+
+    /**
+     * Gets which players receive a broadcast message type
+     *
+     * @param messageKey Message key, e.g. time-remaining
+     * @return Configured audience scope, global if not set
+     */
+    public AudienceScope getAudienceScope(String messageKey) {
+        AudienceScope scope = audiences.get(messageKey);
+        return scope != null ? scope : AudienceScope.GLOBAL;
+    }
+
+    Map<String, MessageTemplate> getMessages() {
+        return messages;
+    }
+
+    Map<String, AudienceScope> getAudiences() {
+        return audiences;
+    }
+
+    // Getters
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public int getCaptureTime() {
+        return captureTime;
+    }
+
+    public int getMessageInterval() {
+        return messageInterval;
+    }
+
+    public TimingMode getTimingMode() {
+        return timingMode;
+    }
+
+    public boolean isAsyncCapture() {
+        return asyncCapture;
+    }
+
+    public int getAsyncCaptureThreads() {
+        return asyncCaptureThreads;
+    }
+
+    public int getRegionCheckInterval() {
+        return regionCheckInterval;
+    }
+
+    public int getMessageBudget() {
+        return messageBudget;
+    }
+
+    public double getBroadcastRadius() {
+        return broadcastRadius;
+    }
+
+    public int getChestDespawnTime() {
+        return chestDespawnTime;
+    }
+
+    public int getSaveDelay() {
+        return saveDelay;
+    }
+
+    public StorageType getStorageType() {
+        return storageType;
+    }
+
+    public boolean isAutoReload() {
+        return autoReload;
+    }
+
+    public int getAutoReloadDebounce() {
+        return autoReloadDebounce;
+    }
+
+    public List<String> getRewardCommands() {
+        return rewardCommands;
+    }
+
+    public LootTable getLootTable() {
+        return lootTable;
+    }
+
+    public boolean areSchedulesEnabled() {
+        return schedulesEnabled;
+    }
+
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public List<String> getScheduledTimes() {
+        return scheduledTimes;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+}
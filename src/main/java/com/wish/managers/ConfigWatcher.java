@@ -0,0 +1,273 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigWatcher
+ * Reloads config.yml automatically when it is changed on disk, if
+ * settings.auto-reload is enabled. A background thread watches the data
+ * folder and waits until writes have stopped for the debounce time. The
+ * file is only parsed when its SHA-256 hash changed, and only handed to
+ * the main thread when it is valid and differs from the live snapshot.
+ * Writes made by the plugin itself are recognised by their hash.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class ConfigWatcher {
+    private static final String CONFIG_FILE = "config.yml";
+
+    private final MiniKOTH plugin;
+    private final Path folder;
+    private volatile byte[] lastHash;
+    private volatile boolean running;
+    private volatile boolean parsing;
+    private Thread thread;
+
+    // Statistics
+    private volatile long events;
+    private volatile long reloads;
+    private volatile long unchanged;
+
+    /**
+     * Constructor for ConfigWatcher
+     *
+     * @param plugin Instance of the main plugin class
+     */
+    public ConfigWatcher(MiniKOTH plugin) {
+        this.plugin = plugin;
+        this.folder = plugin.getDataFolder().toPath();
+    }
+
+    /**
+     * Starts or stops watching to match settings.auto-reload
+     */
+    public void update() {
+        if (plugin.getConfigManager().isAutoReload()) {
+            start();
+        } else {
+            stop();
+        }
+    }
+
+    private void start() {
+        if (running) return;
+
+        lastHash = hashFile();
+        Configuration defaults = plugin.getConfig().getDefaults();
+        running = true;
+        thread = new Thread(() -> watch(defaults), "MiniKOTH-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching and waits for the watcher thread to exit
+     */
+    public void stop() {
+        if (!running) return;
+
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        parsing = false;
+    }
+
+    /**
+     * Remembers content the plugin itself wrote to config.yml, so the
+     * resulting file event does not cause a reload. Called from any thread.
+     *
+     * @param data Written file content
+     */
+    public void recordWrite(byte[] data) {
+        lastHash = hash(data);
+    }
+
+    /**
+     * Watch loop, runs on the watcher thread
+     *
+     * @param defaults Bundled defaults to attach to loaded configurations
+     */
+    private void watch(Configuration defaults) {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            folder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (running) {
+                if (!drain(service.take())) continue;
+
+                // Wait until config.yml has been quiet for the debounce time, other files do not restart the wait
+                long debounce = TimeUnit.MILLISECONDS.toNanos(plugin.getConfigManager().getAutoReloadDebounce());
+                long deadline = System.nanoTime() + debounce;
+                long wait;
+                while ((wait = deadline - System.nanoTime()) > 0) {
+                    WatchKey key = service.poll(wait, TimeUnit.NANOSECONDS);
+                    if (key == null) break;
+                    if (drain(key)) {
+                        deadline = System.nanoTime() + debounce;
+                    }
+                }
+                check(defaults);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error watching " + folder + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        running = false;
+    }
+
+    /**
+     * Consumes the events of a watch key
+     *
+     * @return true if config.yml was created or modified
+     */
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path && ((Path) context).getFileName().toString().equals(CONFIG_FILE)) {
+                relevant = true;
+                events++;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    /**
+     * Checks config.yml, config edits are refused until the result was applied
+     */
+    private void check(Configuration defaults) {
+        parsing = true;
+        boolean queued = false;
+        try {
+            queued = parse(defaults);
+        } finally {
+            if (!queued) {
+                parsing = false;
+            }
+        }
+    }
+
+    /**
+     * Parses and validates config.yml if its content changed and hands it
+     * to the main thread if the resulting snapshot differs from the live one
+     *
+     * @return true if the config was handed to the main thread
+     */
+    private boolean parse(Configuration defaults) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(folder.resolve(CONFIG_FILE));
+        } catch (IOException e) {
+            // Deleted or still being replaced, the next event retries
+            return false;
+        }
+
+        byte[] hash = hash(data);
+        if (Arrays.equals(hash, lastHash)) {
+            unchanged++;
+            return false;
+        }
+        lastHash = hash;
+
+        YamlConfiguration loaded = new YamlConfiguration();
+        try {
+            loaded.loadFromString(new String(data, StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            plugin.getLogger().warning("config.yml changed but is not valid YAML, not reloading: " + e.getMessage());
+            return false;
+        }
+        if (defaults != null) {
+            loaded.setDefaults(defaults);
+        }
+
+        ConfigSnapshot next = ConfigSnapshot.load(loaded);
+        ConfigDiff diff = ConfigDiff.between(plugin.getConfigManager().getSnapshot(), next);
+        if (diff.size() == 0) {
+            // Only comments, formatting or KOTH-unrelated keys changed
+            unchanged++;
+            return false;
+        }
+
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                parsing = false;
+                if (!running) return;
+
+                if (plugin.getReloadManager().apply(Bukkit.getConsoleSender(), loaded, next, diff)) {
+                    reloads++;
+                } else {
+                    // Retried on the next change, a manual reload reads the file anyway
+                    lastHash = null;
+                }
+            }
+        }.runTask(plugin);
+        return true;
+    }
+
+    private byte[] hashFile() {
+        try {
+            return hash(Files.readAllBytes(folder.resolve(CONFIG_FILE)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] hash(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime provides SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Getters
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isParsing() {
+        return parsing;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getReloads() {
+        return reloads;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+}
@@ -0,0 +1,78 @@
+package com.wish.managers;
+
+import com.wish.storage.KOTHData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DefinitionDiff
+ * KOTH definitions that were added, edited or removed in storage compared
+ * to the ones in memory. Computed on the storage thread.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class DefinitionDiff {
+    private final List<KOTHData> added;
+    private final List<KOTHData> changed;
+    private final List<String> removed;
+
+    private DefinitionDiff(List<KOTHData> added, List<KOTHData> changed, List<String> removed) {
+        this.added = Collections.unmodifiableList(added);
+        this.changed = Collections.unmodifiableList(changed);
+        this.removed = Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * Compares the definitions in memory with the stored ones
+     *
+     * @param current Definitions in memory by KOTH name
+     * @param stored Definitions in storage by KOTH name
+     * @return Differences between them
+     */
+    public static DefinitionDiff between(Map<String, KOTHData> current, Map<String, KOTHData> stored) {
+        List<KOTHData> added = new ArrayList<>();
+        List<KOTHData> changed = new ArrayList<>();
+        for (KOTHData data : stored.values()) {
+            KOTHData existing = current.get(data.getName());
+            if (existing == null) {
+                added.add(data);
+            } else if (!existing.equals(data)) {
+                changed.add(data);
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (String name : current.keySet()) {
+            if (!stored.containsKey(name)) {
+                removed.add(name);
+            }
+        }
+        return new DefinitionDiff(added, changed, removed);
+    }
+
+    /**
+     * Gets the number of added, changed and removed KOTHs
+     *
+     * @return Number of changes
+     */
+    public int size() {
+        return added.size() + changed.size() + removed.size();
+    }
+
+    // Getters
+    public List<KOTHData> getAdded() {
+        return added;
+    }
+
+    public List<KOTHData> getChanged() {
+        return changed;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+}
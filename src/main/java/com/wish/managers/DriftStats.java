@@ -0,0 +1,69 @@
+package com.wish.managers;
+
+/**
+ * DriftStats
+ * Collects how far KOTH timers drift from real time, so both timing
+ * modes can be compared under lag
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class DriftStats {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private long samples;
+    private long totalIntervalNanos;
+    private long maxIntervalNanos;
+    private long lastDriftNanos;
+    private long maxDriftNanos;
+
+    /**
+     * Records one service of an active KOTH
+     *
+     * @param intervalNanos Real time since the KOTH was last serviced
+     * @param driftNanos Real elapsed time minus counted elapsed time
+     */
+    public void record(long intervalNanos, long driftNanos) {
+        samples++;
+        totalIntervalNanos += intervalNanos;
+        if (intervalNanos > maxIntervalNanos) {
+            maxIntervalNanos = intervalNanos;
+        }
+        lastDriftNanos = driftNanos;
+        if (Math.abs(driftNanos) > Math.abs(maxDriftNanos)) {
+            maxDriftNanos = driftNanos;
+        }
+    }
+
+    /**
+     * Resets all collected statistics
+     */
+    public void reset() {
+        samples = 0;
+        totalIntervalNanos = 0;
+        maxIntervalNanos = 0;
+        lastDriftNanos = 0;
+        maxDriftNanos = 0;
+    }
+
+    // Getters
+    public long getSamples() {
+        return samples;
+    }
+
+    public long getAverageIntervalNanos() {
+        return samples == 0 ? NANOS_PER_SECOND : totalIntervalNanos / samples;
+    }
+
+    public long getMaxIntervalNanos() {
+        return maxIntervalNanos;
+    }
+
+    public long getLastDriftNanos() {
+        return lastDriftNanos;
+    }
+
+    public long getMaxDriftNanos() {
+        return maxDriftNanos;
+    }
+}
@@ -1,8 +1,19 @@
 package com.wish.managers;
 
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.wish.storage.KOTHData;
+import com.wish.utils.RegionBounds;
+import com.wish.utils.RenderCache;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * KOTH Class
@@ -13,51 +24,78 @@ import org.bukkit.configuration.ConfigurationSection;
  */
 public class KOTH {
     private final String name;
-    private final ProtectedRegion region;
-    private Location chestSpawnLocation;
+    private final String worldName;
+    private ProtectedRegion region;
+    private RegionBounds bounds;
+    private String chestWorldName;
+    private Location chestSpawn;
     private boolean active;
-    private String currentCapturer;
+    private UUID currentCapturer;
+    private WeakReference<Player> capturerRef;
     private int captureTime;
     private int remainingTime;
+    private long startedAt;
+    private long startNanos;
+    private long deadlineNanos;
+    private long lastServiceNanos;
+    private final Set<UUID> occupants;
+    private final Set<UUID> occupantsView;
+    private int occupancySlot;
+    private RenderCache renderCache;
 
     /**
      * Constructor for KOTH
      *
      * @param name The name of the KOTH
+     * @param worldName The world the WorldGuard region belongs to
      * @param region The WorldGuard region for this KOTH
      * @param chestSpawnLocation Location where reward chest will spawn
      */
-    public KOTH(String name, ProtectedRegion region, Location chestSpawnLocation) {
+    public KOTH(String name, String worldName, ProtectedRegion region, Location chestSpawnLocation) {
         this.name = name;
+        this.worldName = worldName;
         this.region = region;
-        this.chestSpawnLocation = chestSpawnLocation;
+        setChestSpawnLocation(chestSpawnLocation);
         this.active = false;
         this.currentCapturer = null;
         this.captureTime = 300; // Default 5 minutes
         this.remainingTime = 0;
+        this.occupants = new LinkedHashSet<>();
+        this.occupantsView = Collections.unmodifiableSet(occupants);
+        this.occupancySlot = -1;
+        this.bounds = RegionBounds.compile(region, worldName);
     }
 
     /**
-     * Loads a KOTH from configuration
+     * Creates a KOTH from its stored definition
      *
-     * @param section ConfigurationSection containing KOTH data
+     * @param data Stored definition
+     * @param worldName World the region was resolved in
      * @param region WorldGuard region for this KOTH
      * @return KOTH instance
      */
-    public static KOTH fromConfig(ConfigurationSection section, ProtectedRegion region) {
-        String name = section.getName();
-        Location chestSpawn = Location.deserialize(section.getConfigurationSection("chest-spawn").getValues(false));
-        return new KOTH(name, region, chestSpawn);
+    public static KOTH fromData(KOTHData data, String worldName, ProtectedRegion region) {
+        KOTH koth = new KOTH(data.getName(), worldName, region, null);
+        if (data.hasChest()) {
+            // The chest world may load later, only its name is kept
+            koth.chestWorldName = data.getChestWorld();
+            koth.chestSpawn = data.toChestLocation(null);
+        }
+        return koth;
     }
 
     /**
-     * Saves KOTH data to configuration
+     * Creates the stored definition of this KOTH
      *
-     * @param section ConfigurationSection to save to
+     * @return KOTHData holding plain values only
      */
-    public void saveToConfig(ConfigurationSection section) {
-        section.set("region-name", region.getId());
-        section.set("chest-spawn", chestSpawnLocation.serialize());
+    public KOTHData toData() {
+        if (chestWorldName == null) {
+            return KOTHData.of(name, worldName, region.getId(), null);
+        }
+        return new KOTHData(name, worldName, region.getId(), chestWorldName,
+                chestSpawn.getX(), chestSpawn.getY(), chestSpawn.getZ(),
+                chestSpawn.getYaw(), chestSpawn.getPitch());
     }
 
     // Getters and Setters
@@ -69,12 +107,55 @@ public class KOTH {
         return region;
     }
 
+    /**
+     * Replaces the WorldGuard region, recompiling its cached bounds
+     *
+     * @param region New region for this KOTH
+     */
+    public void setRegion(ProtectedRegion region) {
+        this.region = region;
+        this.bounds = RegionBounds.compile(region, worldName);
+    }
+
+    public RegionBounds getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Gets where the reward chest spawns. Only the world name is kept, so
+     * an unloaded world is never held on to.
+     *
+     * @return Chest spawn location, or null if none is set or its world is not loaded
+     */
     public Location getChestSpawnLocation() {
-        return chestSpawnLocation;
+        if (chestWorldName == null) return null;
+
+        World world = Bukkit.getWorld(chestWorldName);
+        if (world == null) return null;
+
+        Location location = chestSpawn.clone();
+        location.setWorld(world);
+        return location;
     }
 
     public void setChestSpawnLocation(Location chestSpawnLocation) {
-        this.chestSpawnLocation = chestSpawnLocation;
+        if (chestSpawnLocation == null || chestSpawnLocation.getWorld() == null) {
+            this.chestWorldName = null;
+            this.chestSpawn = null;
+            return;
+        }
+        this.chestWorldName = chestSpawnLocation.getWorld().getName();
+        this.chestSpawn = chestSpawnLocation.clone();
+        this.chestSpawn.setWorld(null);
+    }
+
+    /**
+     * Gets the name of the world this KOTH's region is located in
+     *
+     * @return World name
+     */
+    public String getWorldName() {
+        return worldName;
     }
 
     public boolean isActive() {
@@ -85,12 +166,36 @@ public class KOTH {
         this.active = active;
     }
 
-    public String getCurrentCapturer() {
+    public UUID getCurrentCapturer() {
         return currentCapturer;
     }
 
-    public void setCurrentCapturer(String currentCapturer) {
-        this.currentCapturer = currentCapturer;
+    /**
+     * Gets the player currently capturing this KOTH.
+     * Uses a cached weak reference and only falls back to a UUID lookup
+     * when the cached handle was collected or belongs to an old session.
+     *
+     * @return Capturing player, or null if nobody is capturing or they are offline
+     */
+    public Player getCapturerPlayer() {
+        if (currentCapturer == null) return null;
+
+        Player player = capturerRef != null ? capturerRef.get() : null;
+        if (player == null || !player.isOnline()) {
+            player = Bukkit.getPlayer(currentCapturer);
+            capturerRef = player != null ? new WeakReference<>(player) : null;
+        }
+        return player;
+    }
+
+    /**
+     * Sets the player capturing this KOTH
+     *
+     * @param player Capturing player, or null to reset
+     */
+    void setCurrentCapturer(Player player) {
+        this.currentCapturer = player != null ? player.getUniqueId() : null;
+        this.capturerRef = player != null ? new WeakReference<>(player) : null;
     }
 
     public int getCaptureTime() {
@@ -101,6 +206,32 @@ public class KOTH {
         this.captureTime = captureTime;
     }
 
+    /**
+     * Gets the pre-built countdown and action bar strings of the current run
+     *
+     * @return RenderCache, or null while the KOTH is not active
+     */
+    public RenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    void setRenderCache(RenderCache renderCache) {
+        this.renderCache = renderCache;
+    }
+
+    /**
+     * Gets when the current run started
+     *
+     * @return Start time in epoch milliseconds
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
     public int getRemainingTime() {
         return remainingTime;
     }
@@ -108,4 +239,74 @@ public class KOTH {
     public void setRemainingTime(int remainingTime) {
         this.remainingTime = remainingTime;
     }
-}
\ No newline at end of file
+
+    /**
+     * Starts the wall-clock timer for this KOTH
+     *
+     * @param now Current System.nanoTime value
+     * @param durationSeconds How long the KOTH should run
+     */
+    public void startClock(long now, int durationSeconds) {
+        this.startNanos = now;
+        this.lastServiceNanos = now;
+        this.deadlineNanos = now + durationSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Computes the remaining seconds from the wall-clock deadline
+     *
+     * @param now Current System.nanoTime value
+     * @return Remaining seconds, rounded up and never negative
+     */
+    public int getRemainingTimeAt(long now) {
+        long remainingNanos = deadlineNanos - now;
+        if (remainingNanos <= 0) return 0;
+        return (int) ((remainingNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getLastServiceNanos() {
+        return lastServiceNanos;
+    }
+
+    public void setLastServiceNanos(long lastServiceNanos) {
+        this.lastServiceNanos = lastServiceNanos;
+    }
+
+    /**
+     * Gets the players currently standing in this KOTH
+     *
+     * @return Read-only view of occupant UUIDs
+     */
+    public Set<UUID> getOccupants() {
+        return occupantsView;
+    }
+
+    void addOccupant(UUID playerId) {
+        occupants.add(playerId);
+    }
+
+    void removeOccupant(UUID playerId) {
+        occupants.remove(playerId);
+    }
+
+    void clearOccupants() {
+        occupants.clear();
+    }
+
+    void replaceOccupants(UUID[] playerIds) {
+        occupants.clear();
+        Collections.addAll(occupants, playerIds);
+    }
+
+    int getOccupancySlot() {
+        return occupancySlot;
+    }
+
+    void setOccupancySlot(int occupancySlot) {
+        this.occupancySlot = occupancySlot;
+    }
+}
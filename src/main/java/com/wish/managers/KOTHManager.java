@@ -5,15 +5,29 @@ import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
 import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.wish.MiniKOTH;
-import com.wish.utils.MessageUtils;
+import com.wish.listeners.KOTHListener;
+import com.wish.storage.CaptureRecord;
+import com.wish.storage.KOTHData;
+import com.wish.storage.PendingState;
+import com.wish.utils.RenderCache;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * KOTHManager
@@ -24,9 +38,22 @@ import java.util.Map;
  * @version 0.0.1
  */
 public class KOTHManager {
+    private static final Pattern VALID_NAME = Pattern.compile("[a-z0-9_-]+");
+
     private final MiniKOTH plugin;
     private final Map<String, KOTH> koths;
-    private final Map<String, BukkitRunnable> activeTimers;
+    private final Map<String, KOTHData> unresolved;
+    private final Map<String, PendingState> deferredResumes;
+    private final Map<String, Map<String, KOTH>> kothsByWorld;
+    private final Map<UUID, Set<KOTH>> capturedBy;
+    private final CaptureEngine captureEngine;
+    private final DriftStats driftStats;
+    private final CapturePipeline capturePipeline;
+    private final MessageBus messageBus;
+    private final KOTHListener kothListener;
+    private boolean listenerRegistered;
+    private final RegionIndex regionIndex;
+    private final OccupancyTracker occupancyTracker;
 
     /**
      * Constructor for KOTHManager
@@ -36,7 +63,17 @@ public class KOTHManager {
     public KOTHManager(MiniKOTH plugin) {
         this.plugin = plugin;
         this.koths = new HashMap<>();
-        this.activeTimers = new HashMap<>();
+        this.unresolved = new LinkedHashMap<>();
+        this.deferredResumes = new HashMap<>();
+        this.kothsByWorld = new HashMap<>();
+        this.capturedBy = new HashMap<>();
+        this.captureEngine = new CaptureEngine(plugin, this::tick);
+        this.driftStats = new DriftStats();
+        this.capturePipeline = new CapturePipeline(plugin, this);
+        this.messageBus = new MessageBus(plugin);
+        this.kothListener = new KOTHListener(plugin);
+        this.regionIndex = new RegionIndex();
+        this.occupancyTracker = new OccupancyTracker(regionIndex);
         loadKOTHs();
     }
 
@@ -44,18 +81,20 @@ public class KOTHManager {
      * Creates a new KOTH
      *
      * @param name KOTH name
+     * @param world World the region was created in
      * @param region WorldGuard region
      * @param chestSpawnLocation Location for chest spawn
      * @return true if creation was successful
      */
-    public boolean createKOTH(String name, ProtectedRegion region, Location chestSpawnLocation) {
+    public boolean createKOTH(String name, World world, ProtectedRegion region, Location chestSpawnLocation) {
         try {
-            if (koths.containsKey(name)) {
+            if (koths.containsKey(name) || unresolved.containsKey(name)) {
                 return false;
             }
 
-            KOTH koth = new KOTH(name, region, chestSpawnLocation);
-            koths.put(name, koth);
+            KOTH koth = new KOTH(name, world.getName(), region, chestSpawnLocation);
+            register(koth);
+            updateIndex(koth);
             saveKOTH(koth);
             return true;
         } catch (Exception e) {
@@ -77,36 +116,23 @@ public class KOTHManager {
             return false;
         }
 
+        int captureTime = plugin.getConfigManager().getCaptureTime();
         koth.setActive(true);
-        koth.setRemainingTime(plugin.getConfigManager().getCaptureTime());
-
-        // Start capture timer
-        BukkitRunnable timer = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (koth.getRemainingTime() <= 0) {
-                    endKOTH(name);
-                    return;
-                }
-
-                // Check for capturer
-                checkCapture(koth);
-
-                // Update time
-                koth.setRemainingTime(koth.getRemainingTime() - 1);
-
-                // Send time messages
-                if (koth.getRemainingTime() % plugin.getConfigManager().getMessageInterval() == 0) {
-                    broadcastTimeRemaining(koth);
-                }
-            }
-        };
-
-        timer.runTaskTimer(plugin, 20L, 20L);
-        activeTimers.put(name, timer);
+        koth.setCaptureTime(captureTime);
+        koth.setRemainingTime(captureTime);
+        koth.setRenderCache(new RenderCache(captureTime));
+        koth.setStartedAt(System.currentTimeMillis());
+        koth.startClock(System.nanoTime(), captureTime);
+        refreshRegion(koth);
+        updateIndex(koth);
+
+        // Hand the KOTH to the shared capture engine
+        captureEngine.add(koth);
+        updateCaptureMode();
+        updateListeners();
 
         // Broadcast start message
-        Bukkit.broadcastMessage(plugin.getConfigManager().getMessage("koth-started", "name", name));
+        messageBus.broadcast("koth-started", plugin.getConfigManager().getMessage("koth-started", "name", name), koth);
         return true;
     }
 
@@ -121,67 +147,139 @@ public class KOTHManager {
             return;
         }
 
-        // Cancel timer
-        BukkitRunnable timer = activeTimers.remove(name);
-        if (timer != null) {
-            timer.cancel();
-        }
+        // Stop servicing the KOTH
+        captureEngine.remove(koth);
+
+        // Remember the winner before the state is reset
+        Player winner = koth.getCapturerPlayer();
+        plugin.getStorageService().recordCapture(new CaptureRecord(name, koth.getCurrentCapturer(),
+                winner != null ? winner.getName() : null, koth.getStartedAt(), System.currentTimeMillis()));
 
         // Reset KOTH state
         koth.setActive(false);
-        koth.setCurrentCapturer(null);
+        setCapturer(koth, null);
         koth.setRemainingTime(0);
+        koth.setRenderCache(null);
+        updateIndex(koth);
+        updateCaptureMode();
+        updateListeners();
 
         // Handle rewards if there was a capturer
-        if (koth.getCurrentCapturer() != null) {
-            plugin.getRewardManager().giveRewards(koth.getCurrentCapturer());
+        if (winner != null) {
+            plugin.getRewardManager().giveRewards(winner, koth);
         }
 
         // Broadcast end message
-        Bukkit.broadcastMessage(plugin.getConfigManager().getMessage("koth-ended", "name", name));
+        messageBus.broadcast("koth-ended", plugin.getConfigManager().getMessage("koth-ended", "name", name), koth);
+    }
+
+    /**
+     * Runs one second of an active KOTH, called by the capture engine
+     *
+     * @param koth KOTH to advance
+     */
+    private void tick(KOTH koth) {
+        if (koth.getRemainingTime() <= 0) {
+            endKOTH(koth.getName());
+            return;
+        }
+
+        // Follow async-capture being toggled by a reload
+        updateCaptureMode();
+
+        int previousTime = koth.getRemainingTime();
+
+        // Check for capturer
+        checkCapture(koth);
+
+        // Update time, in wall-clock mode late ticks skip ahead to the real remaining time
+        long now = System.nanoTime();
+        int remainingTime = plugin.getConfigManager().getTimingMode() == TimingMode.WALLCLOCK
+                ? Math.min(previousTime - 1, koth.getRemainingTimeAt(now))
+                : previousTime - 1;
+        remainingTime = Math.max(0, remainingTime);
+        koth.setRemainingTime(remainingTime);
+        recordDrift(koth, now);
+
+        // Pick up WorldGuard region redefinitions, also when late ticks skipped the exact second
+        if (lastIntervalCrossed(previousTime, remainingTime,
+                plugin.getConfigManager().getRegionCheckInterval()) >= 0) {
+            refreshRegion(koth);
+        }
+
+        // Send time messages, once even if several intervals were skipped
+        int boundary = lastIntervalCrossed(previousTime, remainingTime,
+                plugin.getConfigManager().getMessageInterval());
+        if (boundary >= 0) {
+            broadcastTimeRemaining(koth, boundary);
+        }
+    }
+
+    /**
+     * Finds the most recent multiple of an interval passed while the
+     * remaining time went from previous to current
+     *
+     * @param previous Remaining time before this tick
+     * @param current Remaining time after this tick
+     * @param interval Interval in seconds
+     * @return Largest multiple of interval in [current, previous), or -1 if none
+     */
+    private int lastIntervalCrossed(int previous, int current, int interval) {
+        if (interval <= 0 || previous <= current) return -1;
+
+        int boundary = ((previous - 1) / interval) * interval;
+        return boundary >= current ? boundary : -1;
+    }
+
+    /**
+     * Records how far a KOTH's counted time has drifted from real time
+     *
+     * @param koth KOTH that was just serviced
+     * @param now Current System.nanoTime value
+     */
+    private void recordDrift(KOTH koth, long now) {
+        long countedNanos = (koth.getCaptureTime() - koth.getRemainingTime()) * 1_000_000_000L;
+        long elapsedNanos = now - koth.getStartNanos();
+        driftStats.record(now - koth.getLastServiceNanos(), elapsedNanos - countedNanos);
+        koth.setLastServiceNanos(now);
     }
 
     /**
-     * Checks if a player is capturing a KOTH
+     * Checks if a player is capturing a KOTH.
+     * Occupancy is kept up to date by player events, so this only decides
+     * between a single capturer, a contested hill and an empty hill.
      *
      * @param koth KOTH to check
      */
     private void checkCapture(KOTH koth) {
+        Set<UUID> occupants = koth.getOccupants();
         Player capturer = null;
-        int playersInRegion = 0;
-
-        // Check all players in region
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (isInRegion(player, koth.getRegion())) {
-                playersInRegion++;
-                capturer = player;
-            }
+        if (occupants.size() == 1) {
+            UUID occupant = occupants.iterator().next();
+            // Reuse the cached handle while the same player keeps the hill
+            capturer = occupant.equals(koth.getCurrentCapturer())
+                    ? koth.getCapturerPlayer()
+                    : Bukkit.getPlayer(occupant);
         }
 
         // Only one player can capture
-        if (playersInRegion == 1) {
-            String newCapturer = capturer.getName();
-            if (!newCapturer.equals(koth.getCurrentCapturer())) {
-                koth.setCurrentCapturer(newCapturer);
+        if (capturer != null) {
+            if (!capturer.getUniqueId().equals(koth.getCurrentCapturer())) {
+                setCapturer(koth, capturer);
                 capturer.sendMessage(plugin.getConfigManager().getMessage("start-capture"));
             }
 
             // Agregar barra de progreso en ActionBar
-            double progress = 1 - ((double) koth.getRemainingTime() / koth.getCaptureTime());
-            String progressBar = MessageUtils.createProgressBar(progress, 20);
-            String timeLeft = String.format("%d:%02d",
-                    koth.getRemainingTime() / 60,
-                    koth.getRemainingTime() % 60);
-            MessageUtils.sendActionBar(capturer,
-                    "§eCaptured: " + progressBar + " §e" + timeLeft);
+            plugin.getPacketAdapter().sendActionBar(capturer,
+                    koth.getRenderCache().getActionBar(koth.getRemainingTime()));
         } else {
             // Reset capturer if multiple players or no players
             if (koth.getCurrentCapturer() != null) {
-                Player oldCapturer = Bukkit.getPlayer(koth.getCurrentCapturer());
+                Player oldCapturer = koth.getCapturerPlayer();
                 if (oldCapturer != null) {
                     oldCapturer.sendMessage(plugin.getConfigManager().getMessage("leave-capture"));
                 }
-                koth.setCurrentCapturer(null);
+                setCapturer(koth, null);
             }
         }
     }
@@ -194,33 +292,259 @@ public class KOTHManager {
     public boolean removeKOTH(String name) {
         KOTH koth = koths.remove(name);
         if (koth != null) {
-            // Cancel any active timers
-            BukkitRunnable timer = activeTimers.remove(name);
-            if (timer != null) {
-                timer.cancel();
+            Map<String, KOTH> worldKOTHs = kothsByWorld.get(koth.getWorldName());
+            if (worldKOTHs != null) {
+                worldKOTHs.remove(name);
+                if (worldKOTHs.isEmpty()) {
+                    kothsByWorld.remove(koth.getWorldName());
+                }
             }
+
+            setCapturer(koth, null);
+            occupancyTracker.clear(koth);
+            regionIndex.remove(koth);
+
+            // Stop servicing the KOTH if it was active
+            captureEngine.remove(koth);
+            updateCaptureMode();
+            updateListeners();
             return true;
         }
         return false;
     }
 
     /**
-     * Checks if a player is in a WorldGuard region
+     * Changes a KOTH's capturer, keeping the capturer-to-KOTH map in sync
      *
-     * @param player Player to check
-     * @param region Region to check
-     * @return true if player is in region
+     * @param koth KOTH whose capturer changes
+     * @param player New capturer, or null to reset
      */
-    private boolean isInRegion(Player player, ProtectedRegion region) {
+    private void setCapturer(KOTH koth, Player player) {
+        UUID previous = koth.getCurrentCapturer();
+        if (previous != null) {
+            Set<KOTH> captured = capturedBy.get(previous);
+            if (captured != null) {
+                captured.remove(koth);
+                if (captured.isEmpty()) {
+                    capturedBy.remove(previous);
+                }
+            }
+        }
+
+        koth.setCurrentCapturer(player);
+        if (player != null) {
+            Set<KOTH> captured = capturedBy.get(player.getUniqueId());
+            if (captured == null) {
+                captured = new HashSet<>(2);
+                capturedBy.put(player.getUniqueId(), captured);
+            }
+            captured.add(koth);
+        }
+    }
+
+    /**
+     * Handles a player leaving the server, dropping their occupancy
+     * and any capture they were holding
+     *
+     * @param player Player who quit
+     */
+    public void handleQuit(Player player) {
+        removePlayer(player);
+
+        Set<KOTH> captured = capturedBy.remove(player.getUniqueId());
+        if (captured == null) return;
+
+        for (KOTH koth : captured) {
+            koth.setCurrentCapturer(null);
+        }
+    }
+
+    /**
+     * Keeps the region index and occupancy in sync with a KOTH's active state
+     *
+     * @param koth KOTH that was created, started, ended or had its region changed
+     */
+    private void updateIndex(KOTH koth) {
+        occupancyTracker.clear(koth);
+        if (koth.isActive()) {
+            regionIndex.add(koth);
+            occupancyTracker.populate(koth);
+        } else {
+            regionIndex.remove(koth);
+        }
+    }
+
+    /**
+     * Updates which active KOTHs a player occupies after they moved
+     *
+     * @param player Player who moved
+     * @param location New location of the player
+     * @param force Whether to recompute even if the player is on the same block as last time
+     */
+    public void updatePlayerPosition(Player player, Location location, boolean force) {
+        if (capturePipeline.isRunning()) return;
+        occupancyTracker.update(player, location, force);
+    }
+
+    /**
+     * Removes a player from every KOTH they occupy
+     *
+     * @param player Player who left, died or otherwise stopped counting
+     */
+    public void removePlayer(Player player) {
+        if (capturePipeline.isRunning()) return;
+        occupancyTracker.remove(player);
+    }
+
+    /**
+     * Starts or stops the async capture pipeline to match the configuration
+     * and whether any KOTH is active
+     */
+    private void updateCaptureMode() {
+        boolean wanted = hasActiveKOTHs() && plugin.getConfigManager().isAsyncCapture();
+        if (wanted && !capturePipeline.isRunning()) {
+            capturePipeline.start();
+        } else if (!wanted && capturePipeline.isRunning()) {
+            capturePipeline.stop();
+            resyncOccupancy();
+        }
+    }
+
+    /**
+     * Registers the movement listener when the first KOTH starts and
+     * unregisters it when the last one ends, so an idle plugin adds no
+     * per-move overhead
+     */
+    private void updateListeners() {
+        boolean wanted = hasActiveKOTHs();
+        if (wanted && !listenerRegistered) {
+            plugin.getServer().getPluginManager().registerEvents(kothListener, plugin);
+            listenerRegistered = true;
+        } else if (!wanted && listenerRegistered) {
+            HandlerList.unregisterAll(kothListener);
+            listenerRegistered = false;
+            occupancyTracker.reset();
+        }
+    }
+
+    /**
+     * Checks whether the movement listener is currently registered
+     *
+     * @return true if KOTHListener is receiving events
+     */
+    public boolean isListenerRegistered() {
+        return listenerRegistered;
+    }
+
+    /**
+     * Rebuilds event-driven occupancy for every active KOTH, used when
+     * switching back from the async capture pipeline
+     */
+    void resyncOccupancy() {
+        List<KOTH> active = getActiveKOTHs();
+        for (KOTH koth : active) {
+            occupancyTracker.clear(koth);
+        }
+        occupancyTracker.reset();
+        for (KOTH koth : active) {
+            occupancyTracker.populate(koth);
+        }
+    }
+
+    /**
+     * Gets all currently active KOTHs
+     *
+     * @return New list of active KOTHs
+     */
+    public List<KOTH> getActiveKOTHs() {
+        List<KOTH> active = new ArrayList<>();
+        for (KOTH koth : koths.values()) {
+            if (koth.isActive()) {
+                active.add(koth);
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Stops the capture engine, the async capture pipeline and the movement listener,
+     * sending any broadcasts still queued
+     */
+    public void shutdown() {
+        captureEngine.shutdown();
+        capturePipeline.shutdown();
+        messageBus.shutdown();
+        if (listenerRegistered) {
+            HandlerList.unregisterAll(kothListener);
+            listenerRegistered = false;
+        }
+    }
+
+    /**
+     * Gets the active KOTHs whose regions overlap the chunk of a location
+     *
+     * @param location Location to look up
+     * @return List of candidate KOTHs, must not be modified
+     */
+    public List<KOTH> getActiveKOTHsAt(Location location) {
+        return regionIndex.getKOTHsAt(location);
+    }
+
+    /**
+     * Checks whether any KOTH is currently active
+     *
+     * @return true if at least one KOTH is running
+     */
+    public boolean hasActiveKOTHs() {
+        return !regionIndex.isEmpty();
+    }
+
+    /**
+     * Checks whether any KOTH is currently active in a world
+     *
+     * @param world World to check
+     * @return true if at least one KOTH is running in the world
+     */
+    public boolean hasActiveKOTHs(World world) {
+        return world != null && regionIndex.hasWorld(world.getName());
+    }
+
+    /**
+     * Adds a KOTH to the name and per-world registries
+     *
+     * @param koth KOTH to register
+     */
+    private void register(KOTH koth) {
+        koths.put(koth.getName(), koth);
+
+        Map<String, KOTH> worldKOTHs = kothsByWorld.get(koth.getWorldName());
+        if (worldKOTHs == null) {
+            worldKOTHs = new HashMap<>();
+            kothsByWorld.put(koth.getWorldName(), worldKOTHs);
+        }
+        worldKOTHs.put(koth.getName(), koth);
+    }
+
+    /**
+     * Rebuilds a KOTH's cached bounds if its WorldGuard region was redefined
+     *
+     * @param koth KOTH to check
+     * @return true if the cached bounds were rebuilt
+     */
+    public boolean refreshRegion(KOTH koth) {
         WorldGuardPlugin worldGuard = getWorldGuard();
-        if (worldGuard == null) return false;
+        World world = Bukkit.getWorld(koth.getWorldName());
+        if (worldGuard == null || world == null) return false;
+
+        RegionManager regionManager = worldGuard.getRegionManager(world);
+        if (regionManager == null) return false;
 
-        RegionManager regionManager = worldGuard.getRegionManager(player.getWorld());
-        return regionManager != null && region.contains(
-                player.getLocation().getBlockX(),
-                player.getLocation().getBlockY(),
-                player.getLocation().getBlockZ()
-        );
+        ProtectedRegion current = regionManager.getRegion(koth.getRegion().getId());
+        if (current == null || koth.getBounds().matches(current)) return false;
+
+        koth.setRegion(current);
+        updateIndex(koth);
+        return true;
     }
 
     /**
@@ -236,73 +560,305 @@ public class KOTHManager {
      * Broadcasts remaining time message
      *
      * @param koth KOTH to broadcast for
+     * @param seconds Remaining time to announce
      */
-    private void broadcastTimeRemaining(KOTH koth) {
-        String timeStr = String.format("%d:%02d",
-                koth.getRemainingTime() / 60,
-                koth.getRemainingTime() % 60);
-        Bukkit.broadcastMessage(plugin.getConfigManager().getMessage("time-remaining", "time", timeStr));
+    private void broadcastTimeRemaining(KOTH koth, int seconds) {
+        String timeStr = koth.getRenderCache().getTime(seconds);
+        messageBus.broadcast("time-remaining", plugin.getConfigManager().getMessage("time-remaining", "time", timeStr), koth);
     }
 
     /**
-     * Loads all KOTHs from configuration
+     * Loads all KOTHs from storage. KOTHs whose world or region is not
+     * available yet are kept as placeholders until their world loads.
      */
     private void loadKOTHs() {
-        ConfigurationSection kothsSection = plugin.getConfigManager().getKOTHsSection();
-        if (kothsSection == null) return;
+        for (KOTHData data : plugin.getStorageService().loadDefinitions().values()) {
+            if (!resolve(data)) {
+                unresolved.put(data.getName(), data);
+            }
+        }
 
+        if (!unresolved.isEmpty()) {
+            plugin.getLogger().info(unresolved.size() + " KOTHs are waiting for their world or region: "
+                    + String.join(", ", unresolved.keySet()));
+        }
+    }
+
+    /**
+     * Binds a stored KOTH to its world and WorldGuard region and registers it
+     *
+     * @param data Stored definition
+     * @return true if the KOTH was registered, false if its world or region is not available
+     */
+    private boolean resolve(KOTHData data) {
         WorldGuardPlugin worldGuard = getWorldGuard();
-        if (worldGuard == null) return;
+        if (worldGuard == null) return false;
 
-        for (String key : kothsSection.getKeys(false)) {
-            ConfigurationSection kothSection = kothsSection.getConfigurationSection(key);
-            if (kothSection == null) continue;
+        // KOTHs saved before worlds were stored used the default world
+        String worldName = data.getWorldName();
+        World world = worldName != null ? Bukkit.getWorld(worldName) : Bukkit.getWorlds().get(0);
+        if (world == null) return false;
 
-            String regionName = kothSection.getString("region-name");
-            if (regionName == null) continue;
+        // Get region from WorldGuard
+        RegionManager regionManager = worldGuard.getRegionManager(world);
+        if (regionManager == null) return false;
 
-            // Get region from WorldGuard
-            RegionManager regionManager = worldGuard.getRegionManager(
-                    Bukkit.getWorlds().get(0)); // You might want to store world name in config
-            if (regionManager == null) continue;
+        ProtectedRegion region = regionManager.getRegion(data.getRegionName());
+        if (region == null) return false;
 
-            ProtectedRegion region = regionManager.getRegion(regionName);
-            if (region == null) continue;
+        // Create KOTH instance
+        register(KOTH.fromData(data, world.getName(), region));
+        return true;
+    }
 
-            // Create KOTH instance
-            KOTH koth = KOTH.fromConfig(kothSection, region);
-            koths.put(koth.getName(), koth);
+    /**
+     * Resolves the placeholders of a world that was just loaded. Runs one
+     * tick later so WorldGuard has loaded the world's regions first.
+     *
+     * @param world Loaded world
+     */
+    public void onWorldLoad(World world) {
+        if (unresolved.isEmpty()) return;
+
+        String worldName = world.getName();
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                Iterator<KOTHData> iterator = unresolved.values().iterator();
+                while (iterator.hasNext()) {
+                    KOTHData data = iterator.next();
+                    if (!worldName.equals(data.getWorldName()) || !resolve(data)) continue;
+
+                    iterator.remove();
+                    plugin.getLogger().info("KOTH " + data.getName() + " was bound to world " + worldName);
+
+                    PendingState pending = deferredResumes.remove(data.getName());
+                    if (pending != null) {
+                        resume(pending);
+                    }
+                }
+            }
+        }.runTask(plugin);
+    }
+
+    /**
+     * Releases the KOTHs of a world that is being unloaded, keeping them as
+     * placeholders. Running KOTHs continue when the world loads again.
+     *
+     * @param world Unloaded world
+     */
+    public void onWorldUnload(World world) {
+        Map<String, KOTH> worldKOTHs = kothsByWorld.get(world.getName());
+        if (worldKOTHs == null) return;
+
+        for (KOTH koth : new ArrayList<>(worldKOTHs.values())) {
+            if (koth.isActive() && koth.getRemainingTime() > 0) {
+                deferredResumes.put(koth.getName(),
+                        new PendingState(koth.getName(), koth.getCaptureTime(), koth.getRemainingTime()));
+            }
+            unresolved.put(koth.getName(), koth.toData());
+            removeKOTH(koth.getName());
+        }
+    }
+
+    /**
+     * Gets the definitions of every KOTH, including placeholders
+     *
+     * @return New map of definitions by KOTH name
+     */
+    public Map<String, KOTHData> getDefinitions() {
+        Map<String, KOTHData> definitions = new HashMap<>(unresolved);
+        for (KOTH koth : koths.values()) {
+            definitions.put(koth.getName(), koth.toData());
+        }
+        return definitions;
+    }
+
+    /**
+     * Applies KOTH definitions changed in storage. Running KOTHs are left
+     * untouched and pick up their changes on a later reload.
+     *
+     * @param diff Differences between memory and storage
+     * @return Number of changes skipped because their KOTH is running
+     */
+    public int applyDefinitions(DefinitionDiff diff) {
+        int skipped = 0;
+        for (String name : diff.getRemoved()) {
+            KOTH koth = koths.get(name);
+            if (koth != null && koth.isActive()) {
+                skipped++;
+                continue;
+            }
+            if (koth != null) {
+                removeKOTH(name);
+            }
+            unresolved.remove(name);
+            deferredResumes.remove(name);
+        }
+
+        List<KOTHData> updated = new ArrayList<>(diff.getAdded());
+        updated.addAll(diff.getChanged());
+        for (KOTHData data : updated) {
+            KOTH koth = koths.get(data.getName());
+            if (koth != null && koth.isActive()) {
+                skipped++;
+                continue;
+            }
+            if (koth != null) {
+                removeKOTH(data.getName());
+            }
+            unresolved.remove(data.getName());
+            if (!resolve(data)) {
+                unresolved.put(data.getName(), data);
+            }
         }
+        return skipped;
+    }
+
+    /**
+     * Deletes a KOTH that is waiting for its world
+     *
+     * @param name KOTH name
+     * @return true if a placeholder with this name existed
+     */
+    public boolean deleteUnresolved(String name) {
+        if (unresolved.remove(name) == null) return false;
+
+        deferredResumes.remove(name);
+        deleteKOTH(name);
+        return true;
     }
 
     /**
-     * Saves a KOTH to configuration
+     * Saves a KOTH to storage in the background
      *
      * @param koth KOTH to save
      */
     public void saveKOTH(KOTH koth) {
-        try {
-            ConfigurationSection kothsSection = plugin.getConfig().getConfigurationSection("koths");
-            if (kothsSection == null) {
-                kothsSection = plugin.getConfig().createSection("koths");
+        plugin.getStorageService().saveKOTH(koth.toData());
+    }
+
+    /**
+     * Deletes a stored KOTH in the background
+     *
+     * @param name Name of the KOTH to delete
+     */
+    public void deleteKOTH(String name) {
+        plugin.getStorageService().deleteKOTH(name);
+    }
+
+    /**
+     * Saves all KOTHs to storage in one transaction, along with the KOTHs
+     * that are still running so they can be resumed on the next start.
+     * The stored definitions are read back to verify the save.
+     *
+     * @return true if the KOTHs were written and verified
+     */
+    public boolean saveAll() {
+        long start = System.nanoTime();
+
+        List<KOTHData> definitions = new ArrayList<>(unresolved.values());
+        List<PendingState> pending = new ArrayList<>(deferredResumes.values());
+        for (KOTH koth : koths.values()) {
+            definitions.add(koth.toData());
+            if (koth.isActive() && koth.getRemainingTime() > 0) {
+                pending.add(new PendingState(koth.getName(), koth.getCaptureTime(), koth.getRemainingTime()));
             }
+        }
+        long built = System.nanoTime();
 
-            ConfigurationSection kothSection = kothsSection.createSection(koth.getName());
-            koth.saveToConfig(kothSection);
-            plugin.saveConfig();
-        } catch (Exception e) {
-            plugin.getLogger().severe("Error saving KOTH " + koth.getName() + ": " + e.getMessage());
-            e.printStackTrace();
+        StorageService storage = plugin.getStorageService();
+        boolean saved = storage.saveAll(definitions) && storage.savePendingStates(pending);
+        long end = System.nanoTime();
+
+        if (saved) {
+            plugin.getLogger().info(String.format("Saved %d KOTHs (%d running) to %s storage in %.1fms "
+                            + "(build %.1fms, write and verify %.1fms)", definitions.size(), pending.size(),
+                    storage.getType().name().toLowerCase(), (end - start) / 1e6,
+                    (built - start) / 1e6, (end - built) / 1e6));
+        } else {
+            plugin.getLogger().severe("Failed to save " + definitions.size() + " KOTHs after "
+                    + String.format("%.1fms", (end - start) / 1e6));
         }
+        return saved;
     }
 
     /**
-     * Saves all KOTHs to configuration
+     * Restarts the KOTHs that were running when the plugin was last
+     * disabled, with the time they had left
      */
-    public void saveAll() {
-        for (KOTH koth : koths.values()) {
-            saveKOTH(koth);
+    public void resumePending() {
+        StorageService storage = plugin.getStorageService();
+        List<PendingState> pending = storage.loadPendingStates();
+        if (pending.isEmpty()) return;
+
+        for (PendingState state : pending) {
+            if (unresolved.containsKey(state.getKothName())) {
+                // Continued once the KOTH's world loads
+                deferredResumes.put(state.getKothName(), state);
+            } else {
+                resume(state);
+            }
         }
+        storage.savePendingStates(new ArrayList<>(deferredResumes.values()));
+    }
+
+    /**
+     * Restarts a KOTH with the time it had left
+     *
+     * @param state Saved run
+     */
+    private void resume(PendingState state) {
+        KOTH koth = koths.get(state.getKothName());
+        if (koth == null || !startKOTH(koth.getName())) return;
+
+        int captureTime = Math.max(1, state.getCaptureTime());
+        int remaining = Math.min(captureTime, Math.max(1, state.getRemainingTime()));
+        long now = System.nanoTime();
+        koth.setCaptureTime(captureTime);
+        koth.setRemainingTime(remaining);
+        koth.setRenderCache(new RenderCache(captureTime));
+        koth.startClock(now - (captureTime - remaining) * 1_000_000_000L, captureTime);
+        koth.setLastServiceNanos(now);
+        plugin.getLogger().info("Resumed KOTH " + koth.getName() + " with " + remaining + "s left");
+    }
+
+    /**
+     * Gets the shared capture engine
+     *
+     * @return CaptureEngine instance
+     */
+    public CaptureEngine getCaptureEngine() {
+        return captureEngine;
+    }
+
+    /**
+     * Gets the per-tick broadcast bus
+     *
+     * @return MessageBus instance
+     */
+    public MessageBus getMessageBus() {
+        return messageBus;
+    }
+
+    /**
+     * Gets the timer drift statistics
+     *
+     * @return DriftStats instance
+     */
+    public DriftStats getDriftStats() {
+        return driftStats;
+    }
+
+    /**
+     * Checks whether a name can be used for a new KOTH. It becomes part of
+     * the WorldGuard region id and is used as-is in commands.
+     *
+     * @param name Lower-cased KOTH name
+     * @return true if the name only has letters, digits, _ and -
+     */
+    public static boolean isValidName(String name) {
+        return VALID_NAME.matcher(name).matches();
     }
 
     /**
@@ -323,4 +879,13 @@ public class KOTHManager {
     public Map<String, KOTH> getKOTHs() {
         return new HashMap<>(koths);
     }
+
+    /**
+     * Gets the KOTHs that are waiting for their world or region
+     *
+     * @return Names of the placeholder KOTHs
+     */
+    public Set<String> getUnresolvedKOTHs() {
+        return Collections.unmodifiableSet(unresolved.keySet());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import com.wish.utils.LootTable;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * LootSimulator
+ * Monte Carlo estimate of what reward chests pay out. Chests are filled
+ * against the compiled loot table exactly like real ones, slot collisions
+ * included, on a dedicated fork-join pool. Every task gets its own split
+ * SplittableRandom and its own counters, so workers share no state until
+ * their tallies are merged.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class LootSimulator {
+    /**
+     * Chests simulated by one task without splitting further
+     */
+    private static final int CHESTS_PER_TASK = 1 << 16;
+
+    private final MiniKOTH plugin;
+    private ForkJoinPool pool;
+    private boolean running;
+
+    /**
+     * Constructor for LootSimulator
+     *
+     * @param plugin Instance of the main plugin class
+     */
+    public LootSimulator(MiniKOTH plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Simulates filling chests off the main thread
+     *
+     * @param table Loot table to roll against
+     * @param chests Number of chests to fill
+     * @param onComplete Called on the main thread with the result, or null if the simulation failed
+     * @return false if a simulation is already running
+     */
+    public boolean simulate(LootTable table, long chests, Consumer<Result> onComplete) {
+        if (running) return false;
+        running = true;
+
+        if (pool == null) {
+            pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("MiniKOTH-Loot-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+
+        int threads = pool.getParallelism();
+        pool.execute(() -> {
+            Result result;
+            try {
+                long start = System.nanoTime();
+                Tally tally = new FillTask(table, 0, chests, new SplittableRandom()).invoke();
+                result = new Result(table, chests, tally, System.nanoTime() - start, threads);
+            } catch (RuntimeException e) {
+                plugin.getLogger().severe("Error simulating loot: " + e.getMessage());
+                e.printStackTrace();
+                result = null;
+            }
+
+            if (!plugin.isEnabled()) return;
+            Result finished = result;
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    running = false;
+                    onComplete.accept(finished);
+                }
+            }.runTask(plugin);
+        });
+        return true;
+    }
+
+    /**
+     * Stops the worker threads, a running simulation is abandoned
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fills a range of chests, splitting in halves until the range is small enough
+     */
+    private static class FillTask extends RecursiveTask<Tally> {
+        private final LootTable table;
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        FillTask(LootTable table, long from, long to, SplittableRandom random) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > CHESTS_PER_TASK) {
+                long middle = (from + to) >>> 1;
+                FillTask left = new FillTask(table, from, middle, random.split());
+                left.fork();
+                Tally tally = new FillTask(table, middle, to, random).compute();
+                tally.merge(left.join());
+                return tally;
+            }
+
+            Tally tally = new Tally(table.size());
+            int[] slots = new int[LootTable.CHEST_SIZE];
+            int[] counts = new int[table.size()];
+            for (long chest = from; chest < to; chest++) {
+                int filled = table.fill(random, slots);
+                tally.filled += filled;
+                tally.filledSquares += (long) filled * filled;
+
+                // (c + 1)^2 - c^2 = 2c + 1, squares grow with each stack without a pass over every entry
+                for (int entry : slots) {
+                    if (entry < 0) continue;
+                    tally.squares[entry] += 2 * counts[entry] + 1;
+                    tally.stacks[entry]++;
+                    counts[entry]++;
+                }
+                for (int entry : slots) {
+                    if (entry >= 0) counts[entry] = 0;
+                }
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * Sums of stacks per chest and of their squares, per entry
+     */
+    private static class Tally {
+        private final long[] stacks;
+        private final long[] squares;
+        private long filled;
+        private long filledSquares;
+
+        Tally(int entries) {
+            this.stacks = new long[entries];
+            this.squares = new long[entries];
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < stacks.length; i++) {
+                stacks[i] += other.stacks[i];
+                squares[i] += other.squares[i];
+            }
+            filled += other.filled;
+            filledSquares += other.filledSquares;
+        }
+    }
+
+    /**
+     * Outcome of a simulation
+     */
+    public static class Result {
+        private final LootTable table;
+        private final long chests;
+        private final Tally tally;
+        private final long nanos;
+        private final int threads;
+
+        Result(LootTable table, long chests, Tally tally, long nanos, int threads) {
+            this.table = table;
+            this.chests = chests;
+            this.tally = tally;
+            this.nanos = nanos;
+            this.threads = threads;
+        }
+
+        public LootTable getTable() {
+            return table;
+        }
+
+        public long getChests() {
+            return chests;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Gets the average number of filled slots per chest
+         */
+        public double getAverageFilled() {
+            return (double) tally.filled / chests;
+        }
+
+        /**
+         * Gets the variance of the number of filled slots per chest
+         */
+        public double getFilledVariance() {
+            double mean = getAverageFilled();
+            return Math.max(0, (double) tally.filledSquares / chests - mean * mean);
+        }
+
+        /**
+         * Gets the share of rolls lost because they landed on a filled slot
+         *
+         * @return Share from 0 to 1
+         */
+        public double getCollisionRate() {
+            double rolls = LootTable.MIN_ROLLS + (LootTable.EXTRA_ROLLS - 1) / 2.0;
+            return Math.max(0, 1 - getAverageFilled() / rolls);
+        }
+
+        /**
+         * Gets how often an entry was the stack placed, among all placed stacks
+         *
+         * @param entry Entry index
+         * @return Share from 0 to 1
+         */
+        public double getFrequency(int entry) {
+            return tally.filled == 0 ? 0 : (double) tally.stacks[entry] / tally.filled;
+        }
+
+        /**
+         * Gets the expected number of stacks of an entry per chest
+         *
+         * @param entry Entry index
+         * @return Average stacks per chest
+         */
+        public double getAverageStacks(int entry) {
+            return (double) tally.stacks[entry] / chests;
+        }
+
+        /**
+         * Gets the variance of the number of stacks of an entry per chest
+         *
+         * @param entry Entry index
+         * @return Variance of stacks per chest
+         */
+        public double getStackVariance(int entry) {
+            double mean = getAverageStacks(entry);
+            return Math.max(0, (double) tally.squares[entry] / chests - mean * mean);
+        }
+
+        /**
+         * Gets the expected number of items of an entry per chest
+         *
+         * @param entry Entry index
+         * @return Average items per chest
+         */
+        public double getAverageItems(int entry) {
+            return getAverageStacks(entry) * table.getEntry(entry).getAmount();
+        }
+    }
+}
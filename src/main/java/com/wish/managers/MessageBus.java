@@ -0,0 +1,354 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import com.wish.utils.PacketAdapter;
+import com.wish.utils.RegionBounds;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * MessageBus
+ * Collects KOTH broadcasts queued during a tick and sends them in one flush.
+ * Identical messages are sent once and different messages from the same
+ * template and audience are merged into a single chat line. Each player
+ * receives at most a configured number of lines per flush, the rest wait
+ * for the next tick.
+ * Audiences are resolved per message type from the configured scope,
+ * through per-world player lists and nearby-entity lookups rather than
+ * scanning every online player.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class MessageBus {
+    private static final String MERGE_SEPARATOR = " §8| ";
+
+    private final MiniKOTH plugin;
+    private final Map<String, Group> pending;
+    private final List<Delivery> deferred;
+    private final Set<UUID> optedIn;
+    private BukkitRunnable flushTask;
+
+    // Statistics
+    private long queued;
+    private long packetsSent;
+    private long packetsSaved;
+    private long packetsScoped;
+
+    /**
+     * Constructor for MessageBus
+     *
+     * @param plugin Instance of the main plugin class
+     */
+    public MessageBus(MiniKOTH plugin) {
+        this.plugin = plugin;
+        this.pending = new LinkedHashMap<>();
+        this.deferred = new ArrayList<>();
+        this.optedIn = new HashSet<>();
+    }
+
+    /**
+     * Queues a broadcast about a KOTH for the end of the current tick
+     *
+     * @param template Message key the text was rendered from, used for merging and its audience scope
+     * @param message Rendered message
+     * @param koth KOTH the message is about
+     */
+    public void broadcast(String template, String message, KOTH koth) {
+        AudienceScope scope = plugin.getConfigManager().getAudienceScope(template);
+
+        // Only messages that reach the same audience can be merged
+        String groupKey;
+        switch (scope) {
+            case WORLD:
+                groupKey = template + "|world|" + koth.getWorldName();
+                break;
+            case RADIUS:
+                groupKey = template + "|radius|" + koth.getName();
+                break;
+            default:
+                groupKey = template + "|" + scope.name();
+                break;
+        }
+
+        Group group = pending.get(groupKey);
+        if (group == null) {
+            group = new Group(scope, koth);
+            pending.put(groupKey, group);
+        }
+        group.messages.add(message);
+        queued++;
+        scheduleFlush();
+    }
+
+    /**
+     * Schedules a flush on the next scheduler run if none is pending
+     */
+    private void scheduleFlush() {
+        if (flushTask != null) return;
+
+        flushTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushTask = null;
+                flush(plugin.getConfigManager().getMessageBudget());
+            }
+        };
+        flushTask.runTask(plugin);
+    }
+
+    /**
+     * Sends queued broadcasts, lines deferred by an earlier flush first
+     *
+     * @param budget Maximum number of lines each player receives
+     */
+    private void flush(int budget) {
+        if (pending.isEmpty() && deferred.isEmpty()) return;
+
+        List<Delivery> deliveries = new ArrayList<>(deferred.size() + pending.size());
+        deliveries.addAll(deferred);
+        deferred.clear();
+
+        // Merge and deduplicate by template and audience, keeping the order groups were first queued in
+        int eligible = -1;
+        for (Group group : pending.values()) {
+            List<Player> recipients = resolveAudience(group.scope, group.koth);
+            String line = merge(group.messages);
+            deliveries.add(new Delivery(line, recipients, true));
+
+            packetsSaved += (long) (group.messages.size() - 1) * recipients.size();
+            if (group.scope != AudienceScope.GLOBAL) {
+                if (eligible < 0) {
+                    eligible = resolveAudience(AudienceScope.GLOBAL, null).size();
+                }
+                packetsScoped += (long) group.messages.size() * Math.max(0, eligible - recipients.size());
+            }
+        }
+        pending.clear();
+
+        // Each line's chat packet is built once and shared by every recipient
+        PacketAdapter packets = plugin.getPacketAdapter();
+        int limit = Math.max(1, budget);
+        Map<Player, Integer> received = new HashMap<>();
+        for (Delivery delivery : deliveries) {
+            List<Player> allowed = new ArrayList<>(delivery.recipients.size());
+            List<Player> over = null;
+            for (Player player : delivery.recipients) {
+                if (!player.isOnline()) continue;
+
+                int count = received.getOrDefault(player, 0);
+                if (count < limit) {
+                    received.put(player, count + 1);
+                    allowed.add(player);
+                } else {
+                    if (over == null) over = new ArrayList<>();
+                    over.add(player);
+                }
+            }
+
+            if (delivery.log) {
+                Bukkit.getConsoleSender().sendMessage(delivery.line);
+            }
+            packets.broadcast(allowed, delivery.line);
+            packetsSent += allowed.size();
+
+            // Players over budget get the line on the next tick
+            if (over != null) {
+                deferred.add(new Delivery(delivery.line, over, false));
+            }
+        }
+
+        if (!deferred.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Joins the messages of a group into one line. Each message was
+     * rendered with the prefix, the merged line only starts with it once.
+     *
+     * @param messages Rendered messages, in the order they were queued
+     * @return Merged line
+     */
+    private String merge(Set<String> messages) {
+        if (messages.size() == 1) return messages.iterator().next();
+
+        String prefix = plugin.getConfigManager().getPrefix();
+        String lead = prefix.isEmpty() ? null : prefix + " ";
+        StringBuilder line = new StringBuilder();
+        for (String message : messages) {
+            if (line.length() > 0) {
+                line.append(MERGE_SEPARATOR);
+                if (lead != null && message.startsWith(lead)) {
+                    message = message.substring(lead.length());
+                }
+            }
+            line.append(message);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Resolves the players a broadcast is sent to
+     *
+     * @param scope Audience scope of the message
+     * @param koth KOTH the message is about, may be null for GLOBAL
+     * @return New list of recipients
+     */
+    private List<Player> resolveAudience(AudienceScope scope, KOTH koth) {
+        List<Player> recipients = new ArrayList<>();
+        switch (scope) {
+            case WORLD: {
+                World world = Bukkit.getWorld(koth.getWorldName());
+                if (world != null) {
+                    addEligible(world.getPlayers(), recipients);
+                }
+                break;
+            }
+            case RADIUS: {
+                World world = Bukkit.getWorld(koth.getWorldName());
+                if (world == null) break;
+
+                // Nearby entities only walks the chunks around the region
+                RegionBounds bounds = koth.getBounds();
+                double radius = plugin.getConfigManager().getBroadcastRadius();
+                Location center = new Location(world,
+                        (bounds.getMinX() + bounds.getMaxX() + 1) / 2.0,
+                        (bounds.getMinY() + bounds.getMaxY() + 1) / 2.0,
+                        (bounds.getMinZ() + bounds.getMaxZ() + 1) / 2.0);
+                Collection<Entity> nearby = world.getNearbyEntities(center,
+                        (bounds.getMaxX() - bounds.getMinX() + 1) / 2.0 + radius,
+                        (bounds.getMaxY() - bounds.getMinY() + 1) / 2.0 + radius,
+                        (bounds.getMaxZ() - bounds.getMinZ() + 1) / 2.0 + radius);
+                for (Entity entity : nearby) {
+                    if (entity instanceof Player && ((Player) entity).hasPermission(Server.BROADCAST_CHANNEL_USERS)) {
+                        recipients.add((Player) entity);
+                    }
+                }
+                break;
+            }
+            case OPT_IN:
+                for (UUID playerId : optedIn) {
+                    Player player = Bukkit.getPlayer(playerId);
+                    if (player != null && player.hasPermission(Server.BROADCAST_CHANNEL_USERS)) {
+                        recipients.add(player);
+                    }
+                }
+                break;
+            default:
+                addEligible(Bukkit.getOnlinePlayers(), recipients);
+                break;
+        }
+        return recipients;
+    }
+
+    /**
+     * Adds the players allowed to receive broadcasts to a list
+     */
+    private void addEligible(Collection<? extends Player> players, List<Player> recipients) {
+        for (Player player : players) {
+            if (player.hasPermission(Server.BROADCAST_CHANNEL_USERS)) {
+                recipients.add(player);
+            }
+        }
+    }
+
+    /**
+     * Toggles whether a player receives opt-in broadcasts
+     *
+     * @param playerId UUID of the player
+     * @return true if the player is now opted in
+     */
+    public boolean toggleOptIn(UUID playerId) {
+        if (optedIn.remove(playerId)) {
+            return false;
+        }
+        optedIn.add(playerId);
+        return true;
+    }
+
+    /**
+     * Stops the pending flush task and sends everything still queued.
+     * No later tick will come, so the budget does not apply.
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Resets the collected statistics
+     */
+    public void resetStats() {
+        queued = 0;
+        packetsSent = 0;
+        packetsSaved = 0;
+        packetsScoped = 0;
+    }
+
+    // Getters
+    public long getQueued() {
+        return queued;
+    }
+
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    public long getPacketsSaved() {
+        return packetsSaved;
+    }
+
+    public long getPacketsScoped() {
+        return packetsScoped;
+    }
+
+    /**
+     * Messages queued for one template and audience
+     */
+    private static class Group {
+        private final AudienceScope scope;
+        private final KOTH koth;
+        private final Set<String> messages;
+
+        Group(AudienceScope scope, KOTH koth) {
+            this.scope = scope;
+            this.koth = koth;
+            this.messages = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * One line and the players it still has to reach
+     */
+    private static class Delivery {
+        private final String line;
+        private final List<Player> recipients;
+        private final boolean log;
+
+        Delivery(String line, List<Player> recipients, boolean log) {
+            this.line = line;
+            this.recipients = recipients;
+            this.log = log;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.wish.managers;
+
+import com.wish.utils.RegionBounds;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * OccupancyTracker
+ * Keeps the set of players standing in each active KOTH up to date
+ * from player events, so capture checks never scan online players.
+ * Each player keeps their last packed block key and a bitmask of the
+ * KOTHs they are inside, so membership is only recomputed when they
+ * reach a new block and only the KOTHs whose bit flipped are touched.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class OccupancyTracker {
+    private final RegionIndex regionIndex;
+    private final Map<UUID, PlayerState> states;
+    private final BitSet usedSlots;
+    private KOTH[] slots;
+    private long[] scratch;
+
+    /**
+     * Constructor for OccupancyTracker
+     *
+     * @param regionIndex Index of active KOTH regions
+     */
+    public OccupancyTracker(RegionIndex regionIndex) {
+        this.regionIndex = regionIndex;
+        this.states = new HashMap<>();
+        this.usedSlots = new BitSet();
+        this.slots = new KOTH[64];
+        this.scratch = new long[1];
+    }
+
+    /**
+     * Recomputes which active KOTHs a player is standing in.
+     * Does nothing if the player is still on the block seen last time,
+     * unless the update is forced.
+     *
+     * @param player Player to update
+     * @param location Current location of the player
+     * @param force Whether to ignore the cached block, used after teleports,
+     *              vehicle moves and respawns
+     */
+    public void update(Player player, Location location, boolean force) {
+        UUID playerId = player.getUniqueId();
+        int worldId = RegionBounds.worldId(location.getWorld());
+        long blockKey = RegionIndex.blockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+
+        PlayerState state = states.get(playerId);
+        if (state == null) {
+            state = new PlayerState(scratch.length);
+            states.put(playerId, state);
+        } else if (!force && state.worldId == worldId && state.blockKey == blockKey) {
+            return;
+        }
+        state.worldId = worldId;
+        state.blockKey = blockKey;
+
+        // Build the new membership mask from the KOTHs overlapping this chunk
+        long[] next = scratch;
+        Arrays.fill(next, 0L);
+        for (KOTH koth : regionIndex.getKOTHsAt(location)) {
+            int slot = koth.getOccupancySlot();
+            if (slot >= 0 && koth.getBounds().contains(location)) {
+                next[slot >> 6] |= 1L << slot;
+            }
+        }
+
+        // Only KOTHs whose bit changed are entered or left
+        long[] mask = state.ensureWords(next.length);
+        for (int word = 0; word < next.length; word++) {
+            long changed = mask[word] ^ next[word];
+            while (changed != 0) {
+                int bit = Long.numberOfTrailingZeros(changed);
+                KOTH koth = slots[(word << 6) + bit];
+                if ((next[word] & (1L << bit)) != 0) {
+                    koth.addOccupant(playerId);
+                } else {
+                    koth.removeOccupant(playerId);
+                }
+                changed &= changed - 1;
+            }
+            mask[word] = next[word];
+        }
+    }
+
+    /**
+     * Removes a player from every KOTH they occupy and forgets their cached block
+     *
+     * @param player Player to remove
+     */
+    public void remove(Player player) {
+        UUID playerId = player.getUniqueId();
+        PlayerState state = states.remove(playerId);
+        if (state == null) return;
+
+        for (int word = 0; word < state.mask.length; word++) {
+            long bits = state.mask[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                slots[(word << 6) + bit].removeOccupant(playerId);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Assigns a KOTH a membership bit and seeds its occupants from the
+     * players currently online. Only done once when a KOTH starts or its
+     * region changes.
+     *
+     * @param koth KOTH to populate
+     */
+    public void populate(KOTH koth) {
+        int slot = koth.getOccupancySlot();
+        if (slot < 0) {
+            slot = assignSlot(koth);
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.isDead()) continue;
+
+            Location location = player.getLocation();
+            if (!koth.getBounds().contains(location)) continue;
+
+            UUID playerId = player.getUniqueId();
+            PlayerState state = states.get(playerId);
+            if (state == null) {
+                state = new PlayerState(scratch.length);
+                state.worldId = RegionBounds.worldId(location.getWorld());
+                state.blockKey = RegionIndex.blockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+                states.put(playerId, state);
+            }
+            state.ensureWords(scratch.length)[slot >> 6] |= 1L << slot;
+            koth.addOccupant(playerId);
+        }
+    }
+
+    /**
+     * Removes every occupant from a KOTH and releases its membership bit
+     *
+     * @param koth KOTH to clear
+     */
+    public void clear(KOTH koth) {
+        int slot = koth.getOccupancySlot();
+        if (slot >= 0) {
+            // Every state is cleared so a reused bit never inherits stale members
+            for (PlayerState state : states.values()) {
+                if ((slot >> 6) < state.mask.length) {
+                    state.mask[slot >> 6] &= ~(1L << slot);
+                }
+            }
+            slots[slot] = null;
+            usedSlots.clear(slot);
+            koth.setOccupancySlot(-1);
+        }
+        koth.clearOccupants();
+    }
+
+    /**
+     * Forgets every tracked player. KOTHs must be cleared first.
+     */
+    public void reset() {
+        states.clear();
+    }
+
+    /**
+     * Gives a KOTH the lowest free membership bit, growing the masks past 64 KOTHs
+     *
+     * @param koth KOTH to assign
+     * @return Assigned slot
+     */
+    private int assignSlot(KOTH koth) {
+        int slot = usedSlots.nextClearBit(0);
+        if (slot >= slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        int words = (slot >> 6) + 1;
+        if (scratch.length < words) {
+            scratch = new long[words];
+        }
+
+        usedSlots.set(slot);
+        slots[slot] = koth;
+        koth.setOccupancySlot(slot);
+        return slot;
+    }
+
+    /**
+     * Last known block and KOTH membership of one player
+     */
+    private static class PlayerState {
+        private int worldId;
+        private long blockKey;
+        private long[] mask;
+
+        PlayerState(int words) {
+            this.mask = new long[words];
+        }
+
+        long[] ensureWords(int words) {
+            if (mask.length < words) {
+                mask = Arrays.copyOf(mask, words);
+            }
+            return mask;
+        }
+    }
+}
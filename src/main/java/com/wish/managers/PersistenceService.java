@@ -0,0 +1,288 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PersistenceService
+ * Write-behind saving of config.yml. Changes mark their top-level section
+ * dirty and are coalesced over a short window. On flush only the dirty
+ * sections are copied on the main thread; serialization and the write run
+ * on a background thread, through a temp file that is atomically moved
+ * over config.yml. Pending changes are always written on disable.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class PersistenceService {
+    private final MiniKOTH plugin;
+    private final File file;
+    private final Map<String, Object> shadow;
+    private final Set<String> dirty;
+    private final Set<String> changed;
+    private final ExecutorService writer;
+    private BukkitRunnable flushTask;
+
+    // Statistics
+    private long requests;
+    private volatile long writes;
+
+    /**
+     * Constructor for PersistenceService
+     *
+     * @param plugin Instance of the main plugin class
+     */
+    public PersistenceService(MiniKOTH plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "config.yml");
+        this.shadow = new LinkedHashMap<>();
+        this.dirty = new LinkedHashSet<>();
+        this.changed = new LinkedHashSet<>();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MiniKOTH-Persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reset();
+    }
+
+    /**
+     * Marks a config path as changed and schedules a coalesced write
+     *
+     * @param path Changed path, e.g. "koths.hill" or "schedules.times"
+     */
+    public void markDirty(String path) {
+        int dot = path.indexOf('.');
+        dirty.add(dot < 0 ? path : path.substring(0, dot));
+        changed.add(path);
+        requests++;
+
+        // Nothing can be scheduled while the plugin is disabling, shutdown writes the change
+        if (flushTask != null || !plugin.isEnabled()) return;
+
+        BukkitRunnable task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushTask = null;
+                flush();
+            }
+        };
+        task.runTaskLater(plugin, plugin.getConfigManager().getSaveDelay());
+        flushTask = task;
+    }
+
+    /**
+     * Copies the dirty sections and queues a background write
+     */
+    public void flush() {
+        if (dirty.isEmpty()) return;
+
+        Map<String, Object> contents = capture();
+        writer.execute(() -> write(contents));
+    }
+
+    /**
+     * Writes pending changes and waits for every queued write to finish.
+     * Used on disable and before the config is reloaded from disk.
+     *
+     * @return true if the pending changes were written, or there were none
+     */
+    public boolean flushNow() {
+        if (flushTask != null) {
+            try {
+                flushTask.cancel();
+            } catch (IllegalStateException e) {
+                // Never scheduled, there is nothing to cancel
+            }
+            flushTask = null;
+        }
+
+        Map<String, Object> contents = dirty.isEmpty() ? null : capture();
+        try {
+            return writer.submit(() -> contents == null || write(contents)).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error waiting for config save: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Writes pending changes and stops the writer thread
+     */
+    public void shutdown() {
+        flushNow();
+        writer.shutdown();
+    }
+
+    /**
+     * Copies the changes not yet written onto a configuration read from
+     * config.yml, so installing it does not drop them
+     *
+     * @param target Configuration read from disk
+     * @return Changed paths that were copied
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> carryOver(Configuration target) {
+        List<String> paths = new ArrayList<>(changed);
+        for (String path : paths) {
+            Object value = copy(plugin.getConfig().get(path, null));
+            if (value instanceof Map) {
+                target.createSection(path, (Map<String, Object>) value);
+            } else {
+                target.set(path, value);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Rebuilds the saved copy from the live config and forgets pending
+     * changes, used after the config was reloaded from disk
+     */
+    public void reset() {
+        shadow.clear();
+        dirty.clear();
+        changed.clear();
+        for (String key : plugin.getConfig().getKeys(false)) {
+            shadow.put(key, copy(plugin.getConfig().get(key)));
+        }
+    }
+
+    /**
+     * Refreshes the copies of the dirty sections from the live config
+     *
+     * @return Snapshot of the whole file to write
+     */
+    private Map<String, Object> capture() {
+        for (String key : dirty) {
+            Object value = plugin.getConfig().get(key);
+            if (value == null) {
+                shadow.remove(key);
+            } else {
+                shadow.put(key, copy(value));
+            }
+        }
+        dirty.clear();
+        changed.clear();
+
+        // Section copies are never modified after capture, a shallow copy is enough
+        return new LinkedHashMap<>(shadow);
+    }
+
+    /**
+     * Deep copies sections, maps and lists so they can be read off the main thread
+     *
+     * @param value Config value
+     * @return Independent copy, leaf values are shared
+     */
+    private static Object copy(Object value) {
+        if (value instanceof ConfigurationSection) {
+            return copyMap(((ConfigurationSection) value).getValues(false));
+        }
+        if (value instanceof Map) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            return copyMap(map);
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                list.add(copy(element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    private static Map<String, Object> copyMap(Map<String, Object> values) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            map.put(entry.getKey(), copy(entry.getValue()));
+        }
+        return map;
+    }
+
+    /**
+     * Serializes a snapshot and atomically replaces config.yml with it.
+     * Runs on the writer thread.
+     *
+     * @param contents Snapshot of the whole file
+     * @return true if the file was replaced
+     */
+    @SuppressWarnings("unchecked")
+    private boolean write(Map<String, Object> contents) {
+        try {
+            YamlConfiguration out = new YamlConfiguration();
+            for (Map.Entry<String, Object> entry : contents.entrySet()) {
+                if (entry.getValue() instanceof Map) {
+                    out.createSection(entry.getKey(), (Map<String, Object>) entry.getValue());
+                } else {
+                    out.set(entry.getKey(), entry.getValue());
+                }
+            }
+            byte[] data = out.saveToString().getBytes(StandardCharsets.UTF_8);
+
+            // Our own write must not trigger an automatic reload
+            ConfigWatcher watcher = plugin.getConfigWatcher();
+            if (watcher != null) {
+                watcher.recordWrite(data);
+            }
+
+            Path target = file.toPath();
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling(file.getName() + ".tmp");
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            writes++;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().severe("Error saving config.yml: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Getters
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public boolean hasPendingChanges() {
+        return !dirty.isEmpty();
+    }
+}
@@ -0,0 +1,183 @@
+package com.wish.managers;
+
+import com.wish.utils.RegionBounds;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RegionIndex
+ * Spatial index that maps packed chunk coordinates to the active KOTHs
+ * whose regions overlap each chunk, so movement checks only test
+ * regions a player could actually be standing in
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class RegionIndex {
+    private final Map<String, Map<Long, List<KOTH>>> worlds;
+    private final Map<String, IndexedRegion> indexed;
+
+    /**
+     * Constructor for RegionIndex
+     */
+    public RegionIndex() {
+        this.worlds = new HashMap<>();
+        this.indexed = new HashMap<>();
+    }
+
+    /**
+     * Adds a KOTH to every chunk its region overlaps
+     *
+     * @param koth KOTH to index
+     */
+    public void add(KOTH koth) {
+        remove(koth);
+
+        RegionBounds bounds = koth.getBounds();
+        String worldName = koth.getWorldName();
+        if (bounds == null || worldName == null) return;
+
+        int minChunkX = bounds.getMinX() >> 4;
+        int minChunkZ = bounds.getMinZ() >> 4;
+        int maxChunkX = bounds.getMaxX() >> 4;
+        int maxChunkZ = bounds.getMaxZ() >> 4;
+
+        Map<Long, List<KOTH>> chunks = worlds.get(worldName);
+        if (chunks == null) {
+            chunks = new HashMap<>();
+            worlds.put(worldName, chunks);
+        }
+
+        long[] keys = new long[(maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1)];
+        int i = 0;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                long key = chunkKey(chunkX, chunkZ);
+                List<KOTH> entries = chunks.get(key);
+                if (entries == null) {
+                    entries = new ArrayList<>(1);
+                    chunks.put(key, entries);
+                }
+                entries.add(koth);
+                keys[i++] = key;
+            }
+        }
+
+        indexed.put(koth.getName(), new IndexedRegion(worldName, keys));
+    }
+
+    /**
+     * Removes a KOTH from every chunk it was indexed in
+     *
+     * @param koth KOTH to remove
+     */
+    public void remove(KOTH koth) {
+        IndexedRegion entry = indexed.remove(koth.getName());
+        if (entry == null) return;
+
+        Map<Long, List<KOTH>> chunks = worlds.get(entry.worldName);
+        if (chunks == null) return;
+
+        for (long key : entry.chunkKeys) {
+            List<KOTH> entries = chunks.get(key);
+            if (entries == null) continue;
+
+            entries.remove(koth);
+            if (entries.isEmpty()) {
+                chunks.remove(key);
+            }
+        }
+
+        if (chunks.isEmpty()) {
+            worlds.remove(entry.worldName);
+        }
+    }
+
+    /**
+     * Gets the active KOTHs whose regions overlap the chunk of a location.
+     * The returned list is owned by the index and must not be modified.
+     *
+     * @param location Location to look up
+     * @return List of candidate KOTHs, empty if none
+     */
+    public List<KOTH> getKOTHsAt(Location location) {
+        World world = location.getWorld();
+        if (world == null) return Collections.emptyList();
+
+        Map<Long, List<KOTH>> chunks = worlds.get(world.getName());
+        if (chunks == null) return Collections.emptyList();
+
+        List<KOTH> entries = chunks.get(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+        return entries != null ? entries : Collections.<KOTH>emptyList();
+    }
+
+    /**
+     * Checks whether any KOTH is currently indexed
+     *
+     * @return true if the index holds no KOTHs
+     */
+    public boolean isEmpty() {
+        return indexed.isEmpty();
+    }
+
+    /**
+     * Checks whether any KOTH is indexed in a world
+     *
+     * @param worldName World name
+     * @return true if the world has at least one indexed KOTH
+     */
+    public boolean hasWorld(String worldName) {
+        return worlds.containsKey(worldName);
+    }
+
+    /**
+     * Removes every KOTH from the index
+     */
+    public void clear() {
+        worlds.clear();
+        indexed.clear();
+    }
+
+    /**
+     * Packs chunk coordinates into a single long key
+     *
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return Packed chunk key
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Packs block coordinates into a single long key.
+     * X and Z keep 26 bits each and Y keeps 12 bits, enough for any world border.
+     *
+     * @param x Block X coordinate
+     * @param y Block Y coordinate
+     * @param z Block Z coordinate
+     * @return Packed block key
+     */
+    public static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    /**
+     * Chunk keys a single KOTH was indexed under
+     */
+    private static class IndexedRegion {
+        private final String worldName;
+        private final long[] chunkKeys;
+
+        IndexedRegion(String worldName, long[] chunkKeys) {
+            this.worldName = worldName;
+            this.chunkKeys = chunkKeys;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import com.wish.storage.KOTHData;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.Map;
+
+/**
+ * ReloadManager
+ * Reloads the plugin without stopping running KOTHs. The config is parsed
+ * and diffed off the main thread, stored KOTH definitions are diffed on
+ * the storage thread, and only the changed parts are applied. Used by
+ * /minikoth reload and by the config watcher.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class ReloadManager {
+    private final MiniKOTH plugin;
+    private boolean reloading;
+
+    /**
+     * Constructor for ReloadManager
+     *
+     * @param plugin Instance of the main plugin class
+     */
+    public ReloadManager(MiniKOTH plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Reloads the config and KOTH definitions and reports the result
+     *
+     * @param sender Receives the reload report
+     * @return false if a reload was already in progress
+     */
+    public boolean reload(CommandSender sender) {
+        if (reloading) return false;
+        reloading = true;
+
+        long start = System.nanoTime();
+        Map<String, KOTHData> current = plugin.getKothManager().getDefinitions();
+        plugin.getConfigManager().reloadAsync(configDiff -> finish(sender, start, current, configDiff), error -> {
+            reloading = false;
+            plugin.getLogger().warning("config.yml could not be loaded, keeping the current config: " + error);
+            sender.sendMessage(plugin.getConfigManager().getMessage("reload-failed"));
+        });
+        return true;
+    }
+
+    /**
+     * Applies a config that was already read, validated and diffed off the
+     * main thread, then reloads the changed KOTH definitions
+     *
+     * @param sender Receives the reload report
+     * @param loaded Configuration read from config.yml, with defaults attached
+     * @param next Snapshot parsed from it
+     * @param configDiff Differences to the live snapshot
+     * @return false if a reload was already in progress
+     */
+    public boolean apply(CommandSender sender, YamlConfiguration loaded, ConfigSnapshot next, ConfigDiff configDiff) {
+        if (reloading) return false;
+        reloading = true;
+
+        long start = System.nanoTime();
+        Map<String, KOTHData> current = plugin.getKothManager().getDefinitions();
+        ConfigSnapshot previous = plugin.getConfigManager().getSnapshot();
+        ConfigSnapshot installed = plugin.getConfigManager().install(loaded, next);
+        finish(sender, start, current, installed == next ? configDiff : ConfigDiff.between(previous, installed));
+        return true;
+    }
+
+    /**
+     * Diffs the stored KOTH definitions, applies every change and reports the result
+     */
+    private void finish(CommandSender sender, long start, Map<String, KOTHData> current, ConfigDiff configDiff) {
+        plugin.getStorageService().diffDefinitions(current, definitionDiff -> {
+            long applyStart = System.nanoTime();
+            int skipped;
+            try {
+                // Messages and settings went live with the snapshot swap
+                if (configDiff.isSchedulesChanged()) {
+                    plugin.getScheduleManager().reload();
+                }
+                if (configDiff.getSettings().contains("auto-reload")) {
+                    plugin.getConfigWatcher().update();
+                }
+                skipped = plugin.getKothManager().applyDefinitions(definitionDiff);
+            } finally {
+                reloading = false;
+            }
+            long end = System.nanoTime();
+
+            if (configDiff.getSettings().contains("storage")) {
+                plugin.getLogger().warning("settings.storage was changed, restart the server to switch storage");
+            }
+
+            String time = String.format("%.1f", (end - start) / 1e6);
+            String apply = String.format("%.2f", (end - applyStart) / 1e6);
+            plugin.getLogger().info("Reloaded in " + time + "ms (apply " + apply + "ms): "
+                    + configDiff.getMessages().size() + " messages, settings " + configDiff.getSettings()
+                    + ", " + definitionDiff.size() + " KOTHs changed, " + skipped + " running KOTHs kept");
+
+            ConfigManager config = plugin.getConfigManager();
+            sender.sendMessage(config.getMessage("reload-success",
+                    "time", time,
+                    "apply", apply,
+                    "changes", String.valueOf(configDiff.size() + definitionDiff.size())));
+            sender.sendMessage(config.getMessage("reload-details",
+                    "messages", String.valueOf(configDiff.getMessages().size()),
+                    "settings", String.valueOf(configDiff.getSettings().size()),
+                    "rewards", configDiff.isRewardsChanged() ? "changed" : "unchanged",
+                    "schedules", configDiff.isSchedulesChanged() ? "changed" : "unchanged",
+                    "koths", String.valueOf(definitionDiff.size()),
+                    "kept", String.valueOf(skipped)));
+        });
+    }
+
+    /**
+     * Checks whether a reload is running or the config watcher is reading
+     * a changed config.yml
+     *
+     * @return true while a reload is in progress
+     */
+    public boolean isReloading() {
+        ConfigWatcher watcher = plugin.getConfigWatcher();
+        return reloading || watcher != null && watcher.isParsing();
+    }
+}
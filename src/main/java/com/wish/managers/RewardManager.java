@@ -18,6 +18,7 @@ import org.bukkit.entity.Player;
 public class RewardManager {
     private final MiniKOTH plugin;
     private final ChestListener chestListener;
+    private final LootSimulator lootSimulator;
 
     /**
      * Constructor for RewardManager
@@ -26,52 +27,42 @@ public class RewardManager {
     public RewardManager(MiniKOTH plugin) {
         this.plugin = plugin;
         this.chestListener = new ChestListener(plugin);
+        this.lootSimulator = new LootSimulator(plugin);
     }
 
     /**
      * Gives rewards to a player
-     * @param playerName Name of the player to receive rewards
+     * @param player Player to receive rewards
+     * @param koth KOTH the player captured
      */
-    public void giveRewards(String playerName) {
-        Player player = Bukkit.getPlayer(playerName);
+    public void giveRewards(Player player, KOTH koth) {
         if (player == null || !player.isOnline()) {
             return;
         }
 
         // Execute reward commands
         for (String command : plugin.getConfigManager().getRewardCommands()) {
-            String processedCommand = command.replace("{player}", playerName);
+            String processedCommand = command.replace("{player}", player.getName());
             Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCommand);
         }
 
         // Spawn reward chest if enabled (to be implemented in ChestManager)
-        spawnRewardChest(player);
+        spawnRewardChest(player, koth);
     }
 
     /**
      * Spawns a reward chest for the winner
      * @param player Player who won the KOTH
+     * @param koth KOTH the player captured
      */
-    private void spawnRewardChest(Player player) {
-        KOTH koth = null;
-
-        // Buscar el KOTH que el jugador capturó
-        for (KOTH k : plugin.getKothManager().getKOTHs().values()) {
-            if (player.getName().equals(k.getCurrentCapturer())) {
-                koth = k;
-                break;
-            }
-        }
-
-        if (koth == null) return;
-
+    private void spawnRewardChest(Player player, KOTH koth) {
         // Obtener la ubicación del cofre
         Location chestLoc = koth.getChestSpawnLocation();
         if (chestLoc == null) return;
 
         // Crear el cofre
         Block block = chestLoc.getBlock();
-        chestListener.createKOTHChest(block, player.getName());
+        chestListener.createKOTHChest(block, player);
 
         // Notificar al jugador
         player.sendMessage(plugin.getConfigManager().getMessage("chest-spawned"));
@@ -90,11 +81,10 @@ public class RewardManager {
             }
         }
 
-        java.util.List<String> commands = plugin.getConfigManager().getRewardCommands();
+        java.util.List<String> commands = new java.util.ArrayList<>(plugin.getConfigManager().getRewardCommands());
         if (!commands.contains(command)) {
             commands.add(command);
-            plugin.getConfig().set("rewards.commands", commands);
-            plugin.saveConfig();
+            plugin.getConfigManager().setRewardCommands(commands);
             return true;
         }
         return false;
@@ -106,10 +96,9 @@ public class RewardManager {
      * @return true if command was removed successfully
      */
     public boolean removeRewardCommand(String command) {
-        java.util.List<String> commands = plugin.getConfigManager().getRewardCommands();
+        java.util.List<String> commands = new java.util.ArrayList<>(plugin.getConfigManager().getRewardCommands());
         if (commands.remove(command)) {
-            plugin.getConfig().set("rewards.commands", commands);
-            plugin.saveConfig();
+            plugin.getConfigManager().setRewardCommands(commands);
             return true;
         }
         return false;
@@ -130,4 +119,19 @@ public class RewardManager {
     public ChestListener getChestListener() {
         return chestListener;
     }
+
+    /**
+     * Gets the loot simulator instance
+     * @return LootSimulator instance
+     */
+    public LootSimulator getLootSimulator() {
+        return lootSimulator;
+    }
+
+    /**
+     * Stops background work, a running loot simulation is abandoned
+     */
+    public void shutdown() {
+        lootSimulator.shutdown();
+    }
 }
\ No newline at end of file
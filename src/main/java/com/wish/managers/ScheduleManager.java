@@ -4,7 +4,6 @@ import com.wish.MiniKOTH;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.time.LocalTime;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
@@ -70,7 +69,7 @@ public class ScheduleManager {
         }
 
         // Get current time in configured timezone
-        LocalTime currentTime = LocalTime.now(ZoneId.of(plugin.getConfigManager().getTimezone()));
+        LocalTime currentTime = LocalTime.now(plugin.getConfigManager().getZone());
         String currentTimeStr = currentTime.format(timeFormatter);
 
         // Check if current time matches any scheduled time
@@ -113,11 +112,10 @@ public class ScheduleManager {
             // Validate time format
             LocalTime.parse(time, timeFormatter);
 
-            List<String> times = plugin.getConfigManager().getScheduledTimes();
+            List<String> times = plugin.getConfigManager().getConfiguredTimes();
             if (!times.contains(time)) {
                 times.add(time);
-                plugin.getConfig().set("schedules.times", times);
-                plugin.saveConfig();
+                plugin.getConfigManager().setScheduledTimes(times);
                 return true;
             }
         } catch (DateTimeParseException e) {
@@ -132,10 +130,9 @@ public class ScheduleManager {
      * @return true if time was removed successfully
      */
     public boolean removeScheduledTime(String time) {
-        List<String> times = plugin.getConfigManager().getScheduledTimes();
+        List<String> times = plugin.getConfigManager().getConfiguredTimes();
         if (times.remove(time)) {
-            plugin.getConfig().set("schedules.times", times);
-            plugin.saveConfig();
+            plugin.getConfigManager().setScheduledTimes(times);
             return true;
         }
         return false;
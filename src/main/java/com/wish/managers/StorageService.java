@@ -0,0 +1,458 @@
+package com.wish.managers;
+
+import com.wish.MiniKOTH;
+import com.wish.storage.CaptureRecord;
+import com.wish.storage.KOTHData;
+import com.wish.storage.KOTHStorage;
+import com.wish.storage.PendingState;
+import com.wish.storage.SQLiteKOTHStorage;
+import com.wish.storage.StorageException;
+import com.wish.storage.StorageType;
+import com.wish.storage.YamlKOTHStorage;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * StorageService
+ * Owns the KOTH storage backend chosen by settings.storage. Single KOTH
+ * changes and capture history are written in order on a background
+ * thread; loading and the bulk save on disable wait for the result.
+ * KOTHs still stored under koths in config.yml are migrated on start.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class StorageService {
+    private static final String LEGACY_BACKUP = "koths-legacy.yml";
+
+    private final MiniKOTH plugin;
+    private final StorageType type;
+    private final KOTHStorage storage;
+    private final ExecutorService writer;
+    private final Map<String, KOTHData> legacy;
+
+    // Statistics
+    private volatile long writes;
+    private volatile long failures;
+
+    /**
+     * Constructor for StorageService
+     *
+     * @param plugin Instance of the main plugin class
+     * @throws StorageException If no storage backend can be opened
+     */
+    public StorageService(MiniKOTH plugin) throws StorageException {
+        this.plugin = plugin;
+        this.legacy = new LinkedHashMap<>();
+
+        StorageType configured = plugin.getConfigManager().getStorageType();
+        KOTHStorage opened = create(configured);
+        try {
+            opened.open();
+        } catch (StorageException e) {
+            if (configured == StorageType.YAML) throw e;
+
+            plugin.getLogger().severe("Error opening " + configured.name().toLowerCase()
+                    + " storage, falling back to yaml: " + e.getMessage());
+            e.printStackTrace();
+            configured = StorageType.YAML;
+            opened = create(configured);
+            opened.open();
+        }
+        this.type = configured;
+        this.storage = opened;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MiniKOTH-Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        migrateLegacy();
+    }
+
+    private KOTHStorage create(StorageType type) {
+        return type == StorageType.SQLITE
+                ? new SQLiteKOTHStorage(plugin.getDataFolder())
+                : new YamlKOTHStorage(plugin.getDataFolder(), plugin.getLogger());
+    }
+
+    /**
+     * Moves KOTHs from the koths section of config.yml into the storage
+     * backend, each on its own. The old section is backed up first and a
+     * KOTH is only removed from config.yml once the backend lists it. KOTHs
+     * that could not be migrated stay in config.yml and are still loaded
+     * from there.
+     */
+    private void migrateLegacy() {
+        ConfigurationSection section = plugin.getConfigManager().getKOTHsSection();
+        if (section == null || section.getKeys(false).isEmpty()) return;
+
+        long start = System.nanoTime();
+        Map<String, KOTHData> parsed = parseLegacy(section);
+
+        Map<String, KOTHData> stored;
+        try {
+            stored = storage.loadDefinitions();
+
+            YamlConfiguration backup = new YamlConfiguration();
+            backup.createSection("koths", toMap(section));
+            Files.write(new File(plugin.getDataFolder(), LEGACY_BACKUP).toPath(),
+                    backup.saveToString().getBytes(StandardCharsets.UTF_8));
+        } catch (StorageException | IOException e) {
+            plugin.getLogger().severe("Error migrating KOTHs from config.yml, loading them from there: "
+                    + e.getMessage());
+            e.printStackTrace();
+            legacy.putAll(parsed);
+            return;
+        }
+
+        List<KOTHData> saved = new ArrayList<>();
+        for (KOTHData data : parsed.values()) {
+            // Already stored by an earlier start whose config.yml save was lost, the stored copy is newer
+            if (stored.containsKey(data.getName())) continue;
+
+            try {
+                storage.saveDefinition(data);
+                saved.add(data);
+            } catch (StorageException e) {
+                plugin.getLogger().severe("Error migrating KOTH " + data.getName()
+                        + ", keeping it in config.yml: " + e.getMessage());
+                e.printStackTrace();
+                legacy.put(data.getName(), data);
+            }
+        }
+
+        try {
+            stored = storage.loadDefinitions();
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Error verifying migrated KOTHs, keeping them in config.yml: " + e.getMessage());
+            e.printStackTrace();
+            stored = Collections.emptyMap();
+        }
+
+        int migrated = 0;
+        for (KOTHData data : parsed.values()) {
+            if (!stored.containsKey(data.getName())) {
+                if (!legacy.containsKey(data.getName())) {
+                    plugin.getLogger().severe("KOTH " + data.getName() + " is missing after migration, "
+                            + "keeping it in config.yml");
+                    legacy.put(data.getName(), data);
+                }
+                continue;
+            }
+
+            section.set(data.getName(), null);
+            migrated++;
+        }
+
+        if (migrated > 0) {
+            if (section.getKeys(false).isEmpty()) {
+                plugin.getConfig().set("koths", null);
+            }
+            plugin.getPersistenceService().markDirty("koths");
+        }
+        plugin.getLogger().info(String.format("Migrated %d KOTHs from config.yml to %s storage in %.1fms "
+                        + "(%d new, %d kept in config.yml), the old section was saved to %s",
+                migrated, type.name().toLowerCase(), (System.nanoTime() - start) / 1e6,
+                saved.size(), section.getKeys(false).size(), LEGACY_BACKUP));
+    }
+
+    /**
+     * Reads the KOTHs of the legacy koths section, skipping those without a region
+     */
+    private Map<String, KOTHData> parseLegacy(ConfigurationSection legacySection) {
+        Map<String, KOTHData> parsed = new LinkedHashMap<>();
+        for (String name : legacySection.getKeys(false)) {
+            ConfigurationSection section = legacySection.getConfigurationSection(name);
+            String region = section != null ? section.getString("region-name") : null;
+            if (region == null) {
+                plugin.getLogger().warning("KOTH " + name + " in config.yml has no region, not migrating it");
+                continue;
+            }
+
+            // KOTHs saved before worlds were stored always used the default world
+            String world = section.getString("world");
+            if (world == null && !Bukkit.getWorlds().isEmpty()) {
+                world = Bukkit.getWorlds().get(0).getName();
+            }
+
+            ConfigurationSection chest = section.getConfigurationSection("chest-spawn");
+            parsed.put(name, new KOTHData(name, world, region,
+                    chest != null ? chest.getString("world") : null,
+                    chest != null ? chest.getDouble("x") : 0,
+                    chest != null ? chest.getDouble("y") : 0,
+                    chest != null ? chest.getDouble("z") : 0,
+                    chest != null ? (float) chest.getDouble("yaw") : 0,
+                    chest != null ? (float) chest.getDouble("pitch") : 0));
+        }
+        return parsed;
+    }
+
+    /**
+     * Converts a section and its subsections into nested maps
+     */
+    private static Map<String, Object> toMap(ConfigurationSection section) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : section.getValues(false).entrySet()) {
+            Object value = entry.getValue();
+            values.put(entry.getKey(), value instanceof ConfigurationSection
+                    ? toMap((ConfigurationSection) value) : value);
+        }
+        return values;
+    }
+
+    /**
+     * Loads every stored KOTH definition
+     *
+     * @return Definitions by KOTH name, empty if they could not be read
+     */
+    public Map<String, KOTHData> loadDefinitions() {
+        Map<String, KOTHData> definitions;
+        try {
+            definitions = new LinkedHashMap<>(storage.loadDefinitions());
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Error loading KOTHs: " + e.getMessage());
+            e.printStackTrace();
+            definitions = new LinkedHashMap<>();
+        }
+        return withLegacy(definitions, legacy);
+    }
+
+    /**
+     * Adds the KOTHs still kept in config.yml, a stored copy always wins
+     */
+    private static Map<String, KOTHData> withLegacy(Map<String, KOTHData> definitions,
+                                                    Map<String, KOTHData> legacy) {
+        for (KOTHData data : legacy.values()) {
+            definitions.putIfAbsent(data.getName(), data);
+        }
+        return definitions;
+    }
+
+    /**
+     * Queues a KOTH definition to be written
+     *
+     * @param data Definition to store
+     */
+    public void saveKOTH(KOTHData data) {
+        submit(() -> storage.saveDefinition(data), "Error saving KOTH " + data.getName());
+    }
+
+    /**
+     * Queues a KOTH definition to be deleted
+     *
+     * @param name KOTH name
+     */
+    public void deleteKOTH(String name) {
+        if (legacy.remove(name) != null) {
+            plugin.getConfig().set("koths." + name, null);
+            plugin.getPersistenceService().markDirty("koths." + name);
+        }
+        submit(() -> storage.deleteDefinition(name), "Error deleting KOTH " + name);
+    }
+
+    /**
+     * Queues a finished run to be added to the capture history
+     *
+     * @param record Finished run
+     */
+    public void recordCapture(CaptureRecord record) {
+        submit(() -> storage.recordCapture(record), "Error recording capture of KOTH " + record.getKothName());
+    }
+
+    /**
+     * Loads the latest runs of a KOTH on the storage thread
+     *
+     * @param name KOTH name
+     * @param limit Maximum number of runs
+     * @param callback Called on the main thread with the runs, newest first
+     */
+    public void loadHistory(String name, int limit, Consumer<List<CaptureRecord>> callback) {
+        writer.execute(() -> {
+            List<CaptureRecord> history;
+            try {
+                history = storage.loadHistory(name, limit);
+            } catch (StorageException e) {
+                plugin.getLogger().severe("Error loading history of KOTH " + name + ": " + e.getMessage());
+                e.printStackTrace();
+                history = Collections.emptyList();
+            }
+
+            List<CaptureRecord> result = history;
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    callback.accept(result);
+                }
+            }.runTask(plugin);
+        });
+    }
+
+    /**
+     * Compares the stored KOTH definitions with the given ones on the
+     * storage thread, after every queued write
+     *
+     * @param current Definitions in memory by KOTH name
+     * @param callback Called on the main thread with the differences
+     */
+    public void diffDefinitions(Map<String, KOTHData> current, Consumer<DefinitionDiff> callback) {
+        Map<String, KOTHData> legacyCopy = new HashMap<>(legacy);
+        writer.execute(() -> {
+            Map<String, KOTHData> stored;
+            try {
+                stored = withLegacy(new LinkedHashMap<>(storage.loadDefinitions()), legacyCopy);
+            } catch (StorageException e) {
+                // Keep the KOTHs in memory rather than dropping all of them
+                plugin.getLogger().severe("Error loading KOTHs: " + e.getMessage());
+                e.printStackTrace();
+                stored = current;
+            }
+
+            DefinitionDiff diff = DefinitionDiff.between(current, stored);
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    callback.accept(diff);
+                }
+            }.runTask(plugin);
+        });
+    }
+
+    /**
+     * Writes several KOTH definitions as one batch after every queued
+     * write, then reads the definitions back to verify them. SQLite
+     * writes the batch in one transaction; YAML writes every file before
+     * replacing any, but each file is only atomic on its own.
+     *
+     * @param data Definitions to store
+     * @return true if every definition was written and is listed by the backend
+     */
+    public boolean saveAll(Collection<KOTHData> data) {
+        return await(() -> {
+            storage.saveDefinitions(data);
+            writes++;
+            Set<String> stored = storage.loadDefinitions().keySet();
+            for (KOTHData definition : data) {
+                if (!stored.contains(definition.getName())) {
+                    plugin.getLogger().severe("KOTH " + definition.getName() + " is missing from storage after saving");
+                    return false;
+                }
+            }
+            return true;
+        }, "Error saving KOTHs");
+    }
+
+    /**
+     * Replaces the stored pending runs and waits for the write
+     *
+     * @param states Runs that are still active
+     * @return true if the runs were written
+     */
+    public boolean savePendingStates(Collection<PendingState> states) {
+        return await(() -> {
+            storage.savePendingStates(states);
+            writes++;
+            return true;
+        }, "Error saving pending KOTHs");
+    }
+
+    /**
+     * Loads the runs that were active when the plugin was last disabled
+     *
+     * @return Pending runs, empty if they could not be read
+     */
+    public List<PendingState> loadPendingStates() {
+        try {
+            return storage.loadPendingStates();
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Error loading pending KOTHs: " + e.getMessage());
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Waits for queued writes and closes the backend
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Timed out waiting for KOTH storage writes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        storage.close();
+    }
+
+    private void submit(StorageTask task, String error) {
+        writer.execute(() -> {
+            try {
+                task.run();
+                writes++;
+            } catch (StorageException | RuntimeException e) {
+                failures++;
+                plugin.getLogger().severe(error + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private boolean await(StorageCall call, String error) {
+        try {
+            return writer.submit(call::call).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            failures++;
+            plugin.getLogger().severe(error + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Getters
+    public StorageType getType() {
+        return type;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * A storage write without a result
+     */
+    private interface StorageTask {
+        void run() throws StorageException;
+    }
+
+    /**
+     * A storage call whose result is waited for
+     */
+    private interface StorageCall {
+        boolean call() throws StorageException;
+    }
+}
@@ -0,0 +1,39 @@
+package com.wish.managers;
+
+/**
+ * TimingMode
+ * How the remaining time of an active KOTH is counted
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public enum TimingMode {
+    /**
+     * One second is subtracted every time the KOTH is serviced,
+     * so the KOTH runs longer when the server is lagging
+     */
+    TICKS,
+
+    /**
+     * Remaining time is derived from a System.nanoTime deadline,
+     * so late ticks are compensated automatically
+     */
+    WALLCLOCK;
+
+    /**
+     * Parses a timing mode from configuration
+     *
+     * @param value Configured value
+     * @return Matching timing mode, TICKS if unknown
+     */
+    public static TimingMode fromString(String value) {
+        if (value != null) {
+            for (TimingMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return TICKS;
+    }
+}
@@ -0,0 +1,56 @@
+package com.wish.storage;
+
+import java.util.UUID;
+
+/**
+ * CaptureRecord
+ * One finished KOTH run in the capture history
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class CaptureRecord {
+    private final String kothName;
+    private final UUID winnerId;
+    private final String winnerName;
+    private final long startedAt;
+    private final long endedAt;
+
+    /**
+     * Constructor for CaptureRecord
+     *
+     * @param kothName KOTH that ended
+     * @param winnerId UUID of the winner, null if nobody captured it
+     * @param winnerName Name of the winner, null if nobody captured it
+     * @param startedAt Start time in epoch milliseconds
+     * @param endedAt End time in epoch milliseconds
+     */
+    public CaptureRecord(String kothName, UUID winnerId, String winnerName, long startedAt, long endedAt) {
+        this.kothName = kothName;
+        this.winnerId = winnerId;
+        this.winnerName = winnerName;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+    }
+
+    // Getters
+    public String getKothName() {
+        return kothName;
+    }
+
+    public UUID getWinnerId() {
+        return winnerId;
+    }
+
+    public String getWinnerName() {
+        return winnerName;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getEndedAt() {
+        return endedAt;
+    }
+}
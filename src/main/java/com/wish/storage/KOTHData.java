@@ -0,0 +1,144 @@
+package com.wish.storage;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Objects;
+
+/**
+ * KOTHData
+ * Stored definition of a KOTH: its world, WorldGuard region id and chest
+ * spawn. Holds only plain values so it can be written off the main thread
+ * and read before worlds and regions are resolved.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class KOTHData {
+    private final String name;
+    private final String worldName;
+    private final String regionName;
+    private final String chestWorld;
+    private final double chestX;
+    private final double chestY;
+    private final double chestZ;
+    private final float chestYaw;
+    private final float chestPitch;
+
+    /**
+     * Constructor for KOTHData
+     *
+     * @param name KOTH name
+     * @param worldName World the region belongs to, null for the default world
+     * @param regionName WorldGuard region id
+     * @param chestWorld World of the chest spawn, null if there is none
+     * @param chestX Chest spawn x
+     * @param chestY Chest spawn y
+     * @param chestZ Chest spawn z
+     * @param chestYaw Chest spawn yaw
+     * @param chestPitch Chest spawn pitch
+     */
+    public KOTHData(String name, String worldName, String regionName, String chestWorld,
+                    double chestX, double chestY, double chestZ, float chestYaw, float chestPitch) {
+        this.name = name;
+        this.worldName = worldName;
+        this.regionName = regionName;
+        this.chestWorld = chestWorld;
+        this.chestX = chestX;
+        this.chestY = chestY;
+        this.chestZ = chestZ;
+        this.chestYaw = chestYaw;
+        this.chestPitch = chestPitch;
+    }
+
+    /**
+     * Creates the data for a KOTH
+     *
+     * @param name KOTH name
+     * @param worldName World the region belongs to
+     * @param regionName WorldGuard region id
+     * @param chest Chest spawn location, may be null
+     * @return New KOTHData
+     */
+    public static KOTHData of(String name, String worldName, String regionName, Location chest) {
+        if (chest == null || chest.getWorld() == null) {
+            return new KOTHData(name, worldName, regionName, null, 0, 0, 0, 0, 0);
+        }
+        return new KOTHData(name, worldName, regionName, chest.getWorld().getName(),
+                chest.getX(), chest.getY(), chest.getZ(), chest.getYaw(), chest.getPitch());
+    }
+
+    /**
+     * Builds the chest spawn location
+     *
+     * @param world Loaded world named by getChestWorld, or null for a location without a world
+     * @return Chest spawn location, or null if there is none
+     */
+    public Location toChestLocation(World world) {
+        if (chestWorld == null) return null;
+        return new Location(world, chestX, chestY, chestZ, chestYaw, chestPitch);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof KOTHData)) return false;
+
+        KOTHData data = (KOTHData) other;
+        return name.equals(data.name)
+                && Objects.equals(worldName, data.worldName)
+                && regionName.equals(data.regionName)
+                && Objects.equals(chestWorld, data.chestWorld)
+                && Double.compare(chestX, data.chestX) == 0
+                && Double.compare(chestY, data.chestY) == 0
+                && Double.compare(chestZ, data.chestZ) == 0
+                && Float.compare(chestYaw, data.chestYaw) == 0
+                && Float.compare(chestPitch, data.chestPitch) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, worldName, regionName, chestWorld, chestX, chestY, chestZ, chestYaw, chestPitch);
+    }
+
+    public boolean hasChest() {
+        return chestWorld != null;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public String getRegionName() {
+        return regionName;
+    }
+
+    public String getChestWorld() {
+        return chestWorld;
+    }
+
+    public double getChestX() {
+        return chestX;
+    }
+
+    public double getChestY() {
+        return chestY;
+    }
+
+    public double getChestZ() {
+        return chestZ;
+    }
+
+    public float getChestYaw() {
+        return chestYaw;
+    }
+
+    public float getChestPitch() {
+        return chestPitch;
+    }
+}
@@ -0,0 +1,97 @@
+package com.wish.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * KOTHStorage
+ * Backend for KOTH definitions, capture history and pending state. Every
+ * change touches only the affected KOTH instead of rewriting all data.
+ * Implementations may block and are called from the storage thread, or
+ * from the main thread while the plugin is enabling or disabling.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public interface KOTHStorage {
+
+    /**
+     * Opens the backend, creating its files or tables if needed
+     *
+     * @throws StorageException If the backend cannot be opened
+     */
+    void open() throws StorageException;
+
+    /**
+     * Releases files and connections
+     */
+    void close();
+
+    /**
+     * Loads every stored KOTH definition
+     *
+     * @return Definitions by KOTH name
+     * @throws StorageException If the data cannot be read
+     */
+    Map<String, KOTHData> loadDefinitions() throws StorageException;
+
+    /**
+     * Inserts or replaces one KOTH definition
+     *
+     * @param data Definition to store
+     * @throws StorageException If the data cannot be written
+     */
+    void saveDefinition(KOTHData data) throws StorageException;
+
+    /**
+     * Inserts or replaces several KOTH definitions as one batch. Whether the
+     * batch is a single transaction depends on the backend
+     *
+     * @param data Definitions to store
+     * @throws StorageException If the data cannot be written
+     */
+    void saveDefinitions(Collection<KOTHData> data) throws StorageException;
+
+    /**
+     * Deletes a KOTH definition, its capture history is kept
+     *
+     * @param name KOTH name
+     * @throws StorageException If the data cannot be written
+     */
+    void deleteDefinition(String name) throws StorageException;
+
+    /**
+     * Appends a finished run to the capture history
+     *
+     * @param record Finished run
+     * @throws StorageException If the data cannot be written
+     */
+    void recordCapture(CaptureRecord record) throws StorageException;
+
+    /**
+     * Loads the latest runs of a KOTH, newest first
+     *
+     * @param name KOTH name
+     * @param limit Maximum number of runs
+     * @return Capture history
+     * @throws StorageException If the data cannot be read
+     */
+    List<CaptureRecord> loadHistory(String name, int limit) throws StorageException;
+
+    /**
+     * Replaces the stored pending state with the given runs
+     *
+     * @param states Runs that were active, may be empty
+     * @throws StorageException If the data cannot be written
+     */
+    void savePendingStates(Collection<PendingState> states) throws StorageException;
+
+    /**
+     * Loads the runs that were active when the plugin was disabled
+     *
+     * @return Pending runs
+     * @throws StorageException If the data cannot be read
+     */
+    List<PendingState> loadPendingStates() throws StorageException;
+}
@@ -0,0 +1,41 @@
+package com.wish.storage;
+
+/**
+ * PendingState
+ * A KOTH that was still running when the plugin was disabled, kept so the
+ * run can be resumed with its remaining time on the next start
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class PendingState {
+    private final String kothName;
+    private final int captureTime;
+    private final int remainingTime;
+
+    /**
+     * Constructor for PendingState
+     *
+     * @param kothName KOTH that was running
+     * @param captureTime Total capture time of the run in seconds
+     * @param remainingTime Seconds that were left
+     */
+    public PendingState(String kothName, int captureTime, int remainingTime) {
+        this.kothName = kothName;
+        this.captureTime = captureTime;
+        this.remainingTime = remainingTime;
+    }
+
+    // Getters
+    public String getKothName() {
+        return kothName;
+    }
+
+    public int getCaptureTime() {
+        return captureTime;
+    }
+
+    public int getRemainingTime() {
+        return remainingTime;
+    }
+}
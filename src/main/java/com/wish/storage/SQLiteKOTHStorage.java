@@ -0,0 +1,238 @@
+package com.wish.storage;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * SQLiteKOTHStorage
+ * Stores KOTH definitions, capture history and pending runs in koths.db,
+ * using the SQLite driver bundled with the server. Definitions are
+ * upserted one row at a time and history is indexed by KOTH and end time.
+ * One connection is shared and every call is synchronized on it.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class SQLiteKOTHStorage implements KOTHStorage {
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS koth ("
+                    + "name TEXT PRIMARY KEY, world TEXT, region TEXT NOT NULL, chest_world TEXT, "
+                    + "chest_x REAL, chest_y REAL, chest_z REAL, chest_yaw REAL, chest_pitch REAL)",
+            "CREATE TABLE IF NOT EXISTS capture_history ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, koth TEXT NOT NULL, winner_uuid TEXT, "
+                    + "winner_name TEXT, started_at INTEGER NOT NULL, ended_at INTEGER NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS capture_history_koth ON capture_history (koth, ended_at)",
+            "CREATE TABLE IF NOT EXISTS pending_state ("
+                    + "koth TEXT PRIMARY KEY, capture_time INTEGER NOT NULL, remaining_time INTEGER NOT NULL)"
+    };
+
+    private final File file;
+    private Connection connection;
+
+    /**
+     * Constructor for SQLiteKOTHStorage
+     *
+     * @param dataFolder Plugin data folder
+     */
+    public SQLiteKOTHStorage(File dataFolder) {
+        this.file = new File(dataFolder, "koths.db");
+    }
+
+    @Override
+    public synchronized void open() throws StorageException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            file.getParentFile().mkdirs();
+            connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            throw new StorageException("SQLite driver is not available", e);
+        } catch (SQLException e) {
+            throw new StorageException("Could not open " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Closing on disable, nothing left to save
+        }
+        connection = null;
+    }
+
+    @Override
+    public synchronized Map<String, KOTHData> loadDefinitions() throws StorageException {
+        Map<String, KOTHData> definitions = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT name, world, region, chest_world, "
+                     + "chest_x, chest_y, chest_z, chest_yaw, chest_pitch FROM koth")) {
+            while (rows.next()) {
+                String name = rows.getString(1);
+                definitions.put(name, new KOTHData(name, rows.getString(2), rows.getString(3), rows.getString(4),
+                        rows.getDouble(5), rows.getDouble(6), rows.getDouble(7),
+                        rows.getFloat(8), rows.getFloat(9)));
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not load KOTHs", e);
+        }
+        return definitions;
+    }
+
+    @Override
+    public void saveDefinition(KOTHData data) throws StorageException {
+        saveDefinitions(Collections.singletonList(data));
+    }
+
+    @Override
+    public synchronized void saveDefinitions(Collection<KOTHData> data) throws StorageException {
+        transaction(() -> {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT OR REPLACE INTO koth "
+                    + "(name, world, region, chest_world, chest_x, chest_y, chest_z, chest_yaw, chest_pitch) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (KOTHData definition : data) {
+                    statement.setString(1, definition.getName());
+                    statement.setString(2, definition.getWorldName());
+                    statement.setString(3, definition.getRegionName());
+                    statement.setString(4, definition.getChestWorld());
+                    statement.setDouble(5, definition.getChestX());
+                    statement.setDouble(6, definition.getChestY());
+                    statement.setDouble(7, definition.getChestZ());
+                    statement.setFloat(8, definition.getChestYaw());
+                    statement.setFloat(9, definition.getChestPitch());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }, "Could not save KOTHs");
+    }
+
+    @Override
+    public synchronized void deleteDefinition(String name) throws StorageException {
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM koth WHERE name = ?")) {
+            statement.setString(1, name);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException("Could not delete KOTH " + name, e);
+        }
+    }
+
+    @Override
+    public synchronized void recordCapture(CaptureRecord record) throws StorageException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO capture_history "
+                + "(koth, winner_uuid, winner_name, started_at, ended_at) VALUES (?, ?, ?, ?, ?)")) {
+            statement.setString(1, record.getKothName());
+            if (record.getWinnerId() != null) {
+                statement.setString(2, record.getWinnerId().toString());
+            } else {
+                statement.setNull(2, Types.VARCHAR);
+            }
+            statement.setString(3, record.getWinnerName());
+            statement.setLong(4, record.getStartedAt());
+            statement.setLong(5, record.getEndedAt());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException("Could not record capture of KOTH " + record.getKothName(), e);
+        }
+    }
+
+    @Override
+    public synchronized List<CaptureRecord> loadHistory(String name, int limit) throws StorageException {
+        List<CaptureRecord> history = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT winner_uuid, winner_name, "
+                + "started_at, ended_at FROM capture_history WHERE koth = ? ORDER BY ended_at DESC LIMIT ?")) {
+            statement.setString(1, name);
+            statement.setInt(2, limit);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    String winnerId = rows.getString(1);
+                    history.add(new CaptureRecord(name, winnerId != null ? UUID.fromString(winnerId) : null,
+                            rows.getString(2), rows.getLong(3), rows.getLong(4)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not load history of KOTH " + name, e);
+        }
+        return history;
+    }
+
+    @Override
+    public synchronized void savePendingStates(Collection<PendingState> states) throws StorageException {
+        transaction(() -> {
+            try (Statement clear = connection.createStatement()) {
+                clear.executeUpdate("DELETE FROM pending_state");
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO pending_state (koth, capture_time, remaining_time) VALUES (?, ?, ?)")) {
+                for (PendingState state : states) {
+                    statement.setString(1, state.getKothName());
+                    statement.setInt(2, state.getCaptureTime());
+                    statement.setInt(3, state.getRemainingTime());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }, "Could not save pending KOTHs");
+    }
+
+    @Override
+    public synchronized List<PendingState> loadPendingStates() throws StorageException {
+        List<PendingState> states = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT koth, capture_time, remaining_time FROM pending_state")) {
+            while (rows.next()) {
+                states.add(new PendingState(rows.getString(1), rows.getInt(2), rows.getInt(3)));
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not load pending KOTHs", e);
+        }
+        return states;
+    }
+
+    /**
+     * Runs statements in one transaction, rolling back if any of them fails
+     */
+    private void transaction(SqlWork work, String error) throws StorageException {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                work.run();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new StorageException(error, e);
+        }
+    }
+
+    /**
+     * Statements run inside a transaction
+     */
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+}
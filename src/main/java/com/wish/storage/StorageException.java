@@ -0,0 +1,19 @@
+package com.wish.storage;
+
+/**
+ * StorageException
+ * Thrown when a KOTH storage backend fails to read or write its data
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class StorageException extends Exception {
+
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
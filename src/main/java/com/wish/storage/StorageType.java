@@ -0,0 +1,37 @@
+package com.wish.storage;
+
+/**
+ * StorageType
+ * Backend used to store KOTH definitions, capture history and pending state
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public enum StorageType {
+    /**
+     * One small YAML file per KOTH in the koths folder
+     */
+    YAML,
+
+    /**
+     * A single SQLite database file, koths.db
+     */
+    SQLITE;
+
+    /**
+     * Parses a storage type from configuration
+     *
+     * @param value Configured value
+     * @return Matching storage type, YAML if unknown
+     */
+    public static StorageType fromString(String value) {
+        if (value != null) {
+            for (StorageType type : values()) {
+                if (type.name().equalsIgnoreCase(value.trim())) {
+                    return type;
+                }
+            }
+        }
+        return YAML;
+    }
+}
@@ -0,0 +1,359 @@
+package com.wish.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * YamlKOTHStorage
+ * Stores each KOTH in its own small file, koths/&lt;name&gt;.yml, with the
+ * chest spawn written as its world and one compact coordinate line. Capture history is kept per
+ * KOTH in history/&lt;name&gt;.yml and pending runs in pending.yml. Files
+ * are replaced atomically through a temp file. A bulk save writes every
+ * temp file before replacing any, but is not one transaction.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class YamlKOTHStorage implements KOTHStorage {
+    private static final String EXTENSION = ".yml";
+    private static final int HISTORY_LIMIT = 100;
+
+    private final File kothsFolder;
+    private final File historyFolder;
+    private final File pendingFile;
+    private final Logger logger;
+
+    /**
+     * Constructor for YamlKOTHStorage
+     *
+     * @param dataFolder Plugin data folder
+     * @param logger Receives warnings about definition files that cannot be read
+     */
+    public YamlKOTHStorage(File dataFolder, Logger logger) {
+        this.logger = logger;
+        this.kothsFolder = new File(dataFolder, "koths");
+        this.historyFolder = new File(dataFolder, "history");
+        this.pendingFile = new File(dataFolder, "pending.yml");
+    }
+
+    @Override
+    public void open() throws StorageException {
+        if (!kothsFolder.isDirectory() && !kothsFolder.mkdirs()) {
+            throw new StorageException("Could not create " + kothsFolder);
+        }
+        if (!historyFolder.isDirectory() && !historyFolder.mkdirs()) {
+            throw new StorageException("Could not create " + historyFolder);
+        }
+    }
+
+    @Override
+    public void close() {
+        // Nothing is kept open between calls
+    }
+
+    @Override
+    public Map<String, KOTHData> loadDefinitions() throws StorageException {
+        Map<String, KOTHData> definitions = new LinkedHashMap<>();
+        File[] files = kothsFolder.listFiles((dir, fileName) -> fileName.endsWith(EXTENSION));
+        if (files == null) return definitions;
+
+        for (File file : files) {
+            String name = decode(file.getName().substring(0, file.getName().length() - EXTENSION.length()));
+            YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+            String region = yaml.getString("region");
+            if (region == null) continue;
+
+            try {
+                definitions.put(name, parseDefinition(name, yaml.getString("world"), region,
+                        yaml.getString("chest-world"), yaml.getString("chest")));
+            } catch (StorageException e) {
+                // One broken file must not hide every other KOTH
+                logger.warning(e.getMessage() + ", skipping " + file.getName());
+            }
+        }
+        return definitions;
+    }
+
+    /**
+     * Parses a definition, the chest line is "x,y,z,yaw,pitch". Files written
+     * before chest-world existed have "world,x,y,z,yaw,pitch", where the world
+     * name may itself contain commas.
+     */
+    static KOTHData parseDefinition(String name, String world, String region, String chestWorld, String chest)
+            throws StorageException {
+        if (chest == null) {
+            return new KOTHData(name, world, region, null, 0, 0, 0, 0, 0);
+        }
+
+        String coordinates = chest;
+        if (chestWorld == null) {
+            int end = chest.length();
+            for (int i = 0; i < 5 && end > 0; i++) {
+                end = chest.lastIndexOf(',', end - 1);
+            }
+            if (end <= 0) {
+                throw new StorageException("Invalid chest spawn for KOTH " + name + ": " + chest);
+            }
+            chestWorld = chest.substring(0, end);
+            coordinates = chest.substring(end + 1);
+        }
+
+        String[] parts = coordinates.split(",");
+        if (parts.length != 5) {
+            throw new StorageException("Invalid chest spawn for KOTH " + name + ": " + chest);
+        }
+        try {
+            return new KOTHData(name, world, region, chestWorld,
+                    Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                    Float.parseFloat(parts[3]), Float.parseFloat(parts[4]));
+        } catch (NumberFormatException e) {
+            throw new StorageException("Invalid chest spawn for KOTH " + name + ": " + chest, e);
+        }
+    }
+
+    @Override
+    public void saveDefinition(KOTHData data) throws StorageException {
+        write(fileFor(kothsFolder, data.getName()), toYaml(data));
+    }
+
+    /**
+     * Writes every definition to a temp file before any definition file is
+     * replaced, so a failed write leaves all of them unchanged. Files are
+     * then moved into place one by one; each move is atomic on its own, but
+     * a failure between two moves can still leave old and new definitions.
+     */
+    @Override
+    public void saveDefinitions(Collection<KOTHData> data) throws StorageException {
+        Map<Path, Path> staged = new LinkedHashMap<>();
+        try {
+            for (KOTHData definition : data) {
+                Path target = fileFor(kothsFolder, definition.getName()).toPath();
+                staged.put(stage(target, toYaml(definition)), target);
+            }
+            for (Iterator<Map.Entry<Path, Path>> iterator = staged.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<Path, Path> entry = iterator.next();
+                replace(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        } finally {
+            // Temp files left over from a failure are never moved into place
+            for (Path temp : staged.keySet()) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // A stale temp file is overwritten by the next save
+                }
+            }
+        }
+    }
+
+    /**
+     * Serializes a definition, the chest coordinates as one compact line
+     */
+    private YamlConfiguration toYaml(KOTHData data) {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("world", data.getWorldName());
+        yaml.set("region", data.getRegionName());
+        if (data.hasChest()) {
+            yaml.set("chest-world", data.getChestWorld());
+            yaml.set("chest", data.getChestX() + "," + data.getChestY() + "," + data.getChestZ() + ","
+                    + data.getChestYaw() + "," + data.getChestPitch());
+        }
+        return yaml;
+    }
+
+    @Override
+    public void deleteDefinition(String name) throws StorageException {
+        try {
+            Files.deleteIfExists(fileFor(kothsFolder, name).toPath());
+        } catch (IOException e) {
+            throw new StorageException("Could not delete KOTH " + name, e);
+        }
+    }
+
+    @Override
+    public void recordCapture(CaptureRecord record) throws StorageException {
+        File file = fileFor(historyFolder, record.getKothName());
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+
+        // One line per run: startedAt,endedAt,winnerId,winnerName
+        List<String> runs = new ArrayList<>(yaml.getStringList("runs"));
+        runs.add(record.getStartedAt() + "," + record.getEndedAt() + ","
+                + (record.getWinnerId() != null ? record.getWinnerId() : "") + ","
+                + (record.getWinnerName() != null ? record.getWinnerName() : ""));
+        if (runs.size() > HISTORY_LIMIT) {
+            runs = new ArrayList<>(runs.subList(runs.size() - HISTORY_LIMIT, runs.size()));
+        }
+
+        yaml.set("runs", runs);
+        write(file, yaml);
+    }
+
+    @Override
+    public List<CaptureRecord> loadHistory(String name, int limit) throws StorageException {
+        File file = fileFor(historyFolder, name);
+        if (!file.isFile()) return Collections.emptyList();
+
+        List<String> runs = YamlConfiguration.loadConfiguration(file).getStringList("runs");
+        List<CaptureRecord> history = new ArrayList<>();
+        for (int i = runs.size() - 1; i >= 0 && history.size() < limit; i--) {
+            String[] parts = runs.get(i).split(",", 4);
+            if (parts.length != 4) continue;
+
+            try {
+                history.add(new CaptureRecord(name,
+                        parts[2].isEmpty() ? null : UUID.fromString(parts[2]),
+                        parts[3].isEmpty() ? null : parts[3],
+                        Long.parseLong(parts[0]), Long.parseLong(parts[1])));
+            } catch (IllegalArgumentException e) {
+                // Skip lines edited by hand into an invalid form
+            }
+        }
+        return history;
+    }
+
+    @Override
+    public void savePendingStates(Collection<PendingState> states) throws StorageException {
+        if (states.isEmpty()) {
+            try {
+                Files.deleteIfExists(pendingFile.toPath());
+            } catch (IOException e) {
+                throw new StorageException("Could not delete " + pendingFile, e);
+            }
+            return;
+        }
+
+        // A list rather than one key per KOTH, names may contain the path separator
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (PendingState state : states) {
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("koth", state.getKothName());
+            run.put("capture-time", state.getCaptureTime());
+            run.put("remaining-time", state.getRemainingTime());
+            runs.add(run);
+        }
+
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("runs", runs);
+        write(pendingFile, yaml);
+    }
+
+    @Override
+    public List<PendingState> loadPendingStates() {
+        if (!pendingFile.isFile()) return Collections.emptyList();
+
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(pendingFile);
+        List<PendingState> states = new ArrayList<>();
+        for (Map<?, ?> run : yaml.getMapList("runs")) {
+            Object name = run.get("koth");
+            Object captureTime = run.get("capture-time");
+            Object remainingTime = run.get("remaining-time");
+            if (name == null || !(captureTime instanceof Number) || !(remainingTime instanceof Number)) continue;
+
+            states.add(new PendingState(name.toString(),
+                    ((Number) captureTime).intValue(),
+                    ((Number) remainingTime).intValue()));
+        }
+        return states;
+    }
+
+    /**
+     * Resolves the file of a KOTH. Characters other than letters, digits,
+     * _ and - are written as %XX escapes of their UTF-8 bytes, so any name
+     * can be stored and is read back unchanged.
+     */
+    static File fileFor(File folder, String name) {
+        StringBuilder fileName = new StringBuilder(name.length());
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-') {
+                fileName.append(c);
+            } else {
+                fileName.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return new File(folder, fileName.append(EXTENSION).toString());
+    }
+
+    /**
+     * Turns a file name written by fileFor back into the KOTH name
+     *
+     * @param fileName File name without extension
+     * @return KOTH name, or the file name itself if it holds an invalid escape
+     */
+    static String decode(String fileName) {
+        if (fileName.indexOf('%') < 0) return fileName;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(fileName.length());
+        for (int i = 0; i < fileName.length(); i++) {
+            char c = fileName.charAt(i);
+            if (c != '%') {
+                bytes.write(c);
+                continue;
+            }
+            if (i + 2 >= fileName.length()) return fileName;
+
+            int high = Character.digit(fileName.charAt(i + 1), 16);
+            int low = Character.digit(fileName.charAt(i + 2), 16);
+            if (high < 0 || low < 0) return fileName;
+
+            bytes.write((high << 4) | low);
+            i += 2;
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a YAML file through a temp file that is atomically moved over it
+     */
+    private void write(File file, YamlConfiguration yaml) throws StorageException {
+        replace(stage(file.toPath(), yaml), file.toPath());
+    }
+
+    /**
+     * Writes the contents of a file to its temp file
+     *
+     * @return Path of the temp file
+     */
+    private Path stage(Path target, YamlConfiguration yaml) throws StorageException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.write(temp, yaml.saveToString().getBytes(StandardCharsets.UTF_8));
+            return temp;
+        } catch (IOException e) {
+            throw new StorageException("Could not write " + target, e);
+        }
+    }
+
+    /**
+     * Moves a temp file over its target, atomically where supported
+     */
+    private void replace(Path temp, Path target) throws StorageException {
+        try {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Could not write " + target, e);
+        }
+    }
+}
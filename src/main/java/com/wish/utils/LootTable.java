@@ -0,0 +1,358 @@
+package com.wish.utils;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * LootTable
+ * Reward chest loot compiled once per config load. Tiers and their items
+ * are flattened into one list of entries, each with the combined chance
+ * of picking its tier and then the item, and sampled in constant time
+ * with Vose's alias method. Materials are validated when compiling, so a
+ * bad entry is reported on load instead of when a chest is filled.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class LootTable {
+    /**
+     * Slots of a single chest
+     */
+    public static final int CHEST_SIZE = 27;
+
+    /**
+     * Fewest rolls made per chest
+     */
+    public static final int MIN_ROLLS = 5;
+
+    /**
+     * Additional rolls made at random per chest, 0 to EXTRA_ROLLS - 1
+     */
+    public static final int EXTRA_ROLLS = 3;
+
+    private static final LootTable EMPTY = new LootTable(Collections.<Entry>emptyList());
+
+    private final List<Entry> entries;
+    private final double[] probability;
+    private final int[] alias;
+
+    LootTable(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.probability = new double[entries.size()];
+        this.alias = new int[entries.size()];
+        buildAlias();
+    }
+
+    /**
+     * Compiles the rewards.chest section
+     *
+     * @param section rewards.chest section, may be null
+     * @param problems List invalid entries are reported to
+     * @return Compiled table, empty if chest rewards are disabled or none are valid
+     */
+    public static LootTable compile(ConfigurationSection section, List<String> problems) {
+        if (section == null || !section.getBoolean("enabled", true)) return EMPTY;
+
+        ConfigurationSection tiersSection = section.getConfigurationSection("items");
+        if (tiersSection == null) return EMPTY;
+
+        // Collect tiers first, their weights are only known once all are read
+        List<List<Entry>> tiers = new ArrayList<>();
+        List<Integer> tierChances = new ArrayList<>();
+        for (String tier : tiersSection.getKeys(false)) {
+            ConfigurationSection tierSection = tiersSection.getConfigurationSection(tier);
+            if (tierSection == null) continue;
+
+            String path = "rewards.chest.items." + tier;
+            int tierChance = tierSection.getInt("chance", 100);
+            List<Entry> items = compileTier(tier, tierSection, path, problems);
+            if (tierChance <= 0 || items.isEmpty()) {
+                problems.add(path + " has no chance or no valid items, it is never rolled");
+                continue;
+            }
+            tiers.add(items);
+            tierChances.add(tierChance);
+        }
+
+        double tierTotal = 0;
+        for (int chance : tierChances) {
+            tierTotal += chance;
+        }
+
+        List<Entry> flattened = new ArrayList<>();
+        for (int i = 0; i < tiers.size(); i++) {
+            List<Entry> items = tiers.get(i);
+            double itemTotal = 0;
+            for (Entry item : items) {
+                itemTotal += item.weight;
+            }
+
+            double tierShare = tierChances.get(i) / tierTotal;
+            for (Entry item : items) {
+                flattened.add(new Entry(item.tier, item.material, item.amount, item.data,
+                        tierShare * item.weight / itemTotal));
+            }
+        }
+        return flattened.isEmpty() ? EMPTY : new LootTable(flattened);
+    }
+
+    /**
+     * Reads the items of a tier, given either as a list or as a section of named items
+     */
+    private static List<Entry> compileTier(String tier, ConfigurationSection section, String path,
+                                           List<String> problems) {
+        List<Entry> items = new ArrayList<>();
+        if (section.isList("items")) {
+            List<Map<?, ?>> list = section.getMapList("items");
+            for (int i = 0; i < list.size(); i++) {
+                Map<?, ?> item = list.get(i);
+                Entry entry = compileItem(tier, item.get("material"), item.get("amount"), item.get("data"),
+                        item.get("chance"), path + ".items[" + i + "]", problems);
+                if (entry != null) items.add(entry);
+            }
+        } else {
+            ConfigurationSection itemsSection = section.getConfigurationSection("items");
+            if (itemsSection == null) return items;
+
+            for (String key : itemsSection.getKeys(false)) {
+                ConfigurationSection item = itemsSection.getConfigurationSection(key);
+                if (item == null) continue;
+
+                Entry entry = compileItem(tier, item.get("material"), item.get("amount"), item.get("data"),
+                        item.get("chance"), path + ".items." + key, problems);
+                if (entry != null) items.add(entry);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Validates one item
+     *
+     * @return Entry weighted by its chance within the tier, or null if invalid
+     */
+    private static Entry compileItem(String tier, Object materialName, Object amountValue, Object dataValue,
+                                     Object chanceValue, String path, List<String> problems) {
+        Material material = materialName != null ? Material.matchMaterial(materialName.toString()) : null;
+        if (material == null || material == Material.AIR) {
+            problems.add("Unknown material '" + materialName + "' at " + path + ", item skipped");
+            return null;
+        }
+
+        int amount = toInt(amountValue, 1);
+        int data = toInt(dataValue, 0);
+        int chance = toInt(chanceValue, 100);
+        if (amount < 1 || data < 0 || data > Short.MAX_VALUE || chance < 0) {
+            problems.add("Invalid amount, data or chance at " + path + ", item skipped");
+            return null;
+        }
+        if (chance == 0) return null;
+
+        return new Entry(tier, material, amount, (short) data, chance);
+    }
+
+    private static int toInt(Object value, int fallback) {
+        if (value instanceof Number) return ((Number) value).intValue();
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Builds the alias table from the entry chances with Vose's algorithm
+     */
+    private void buildAlias() {
+        int size = entries.size();
+        if (size == 0) return;
+
+        double total = 0;
+        for (Entry entry : entries) {
+            total += entry.weight;
+        }
+
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = entries.get(i).weight * size / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Left over columns are full, up to rounding errors
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+    }
+
+    /**
+     * Picks an entry
+     *
+     * @param random Random source, only used by one thread at a time
+     * @return Entry index
+     */
+    public int sample(SplittableRandom random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Rolls the contents of one chest the way reward chests are filled:
+     * MIN_ROLLS to MIN_ROLLS + EXTRA_ROLLS - 1 rolls, each into a random
+     * slot. A roll that lands on an already filled slot is lost.
+     *
+     * @param random Random source, only used by one thread at a time
+     * @param slots Array of CHEST_SIZE slots, set to entry indexes or -1 for empty
+     * @return Number of filled slots
+     */
+    public int fill(SplittableRandom random, int[] slots) {
+        Arrays.fill(slots, 0, CHEST_SIZE, -1);
+        if (isEmpty()) return 0;
+
+        int filled = 0;
+        int rolls = MIN_ROLLS + random.nextInt(EXTRA_ROLLS);
+        for (int i = 0; i < rolls; i++) {
+            int slot = random.nextInt(CHEST_SIZE);
+            if (slots[slot] < 0) {
+                slots[slot] = sample(random);
+                filled++;
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Creates the item stack of an entry
+     *
+     * @param index Entry index
+     * @return New ItemStack
+     */
+    public ItemStack createItem(int index) {
+        Entry entry = entries.get(index);
+        return new ItemStack(entry.material, entry.amount, entry.data);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets an entry of the table
+     *
+     * @param index Entry index
+     * @return Entry with its combined chance
+     */
+    public Entry getEntry(int index) {
+        return entries.get(index);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof LootTable && entries.equals(((LootTable) other).entries));
+    }
+
+    @Override
+    public int hashCode() {
+        return entries.hashCode();
+    }
+
+    /**
+     * One possible item with its chance of being picked per roll
+     */
+    public static final class Entry {
+        private final String tier;
+        private final Material material;
+        private final int amount;
+        private final short data;
+        private final double weight;
+
+        Entry(String tier, Material material, int amount, short data, double weight) {
+            this.tier = tier;
+            this.material = material;
+            this.amount = amount;
+            this.data = data;
+            this.weight = weight;
+        }
+
+        public String getTier() {
+            return tier;
+        }
+
+        public Material getMaterial() {
+            return material;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public short getData() {
+            return data;
+        }
+
+        /**
+         * Gets the chance of this entry being picked by one roll
+         *
+         * @return Chance from 0 to 1, only meaningful after compiling
+         */
+        public double getChance() {
+            return weight;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Entry)) return false;
+
+            Entry entry = (Entry) other;
+            return material == entry.material && amount == entry.amount && data == entry.data
+                    && Double.compare(weight, entry.weight) == 0 && tier.equals(entry.tier);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = tier.hashCode();
+            result = 31 * result + material.hashCode();
+            result = 31 * result + amount;
+            result = 31 * result + data;
+            return 31 * result + Double.hashCode(weight);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.wish.utils;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MessageTemplate
+ * A message compiled once into literal and placeholder segments, with
+ * color codes and the prefix already applied. Rendering is a single
+ * StringBuilder pass, and messages without placeholders render to a
+ * shared constant string.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class MessageTemplate {
+    private final String[] literals;
+    private final String[] keys;
+    private final String constant;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, String[] keys) {
+        this.literals = literals;
+        this.keys = keys;
+        this.constant = keys.length == 0 ? literals[0] : null;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compiles a raw config message
+     *
+     * @param prefix Already colored prefix, or an empty string for none
+     * @param raw Message as written in the config, using &amp; color codes
+     * @return Compiled template
+     */
+    public static MessageTemplate compile(String prefix, String raw) {
+        String message = prefix.isEmpty()
+                ? ChatColor.translateAlternateColorCodes('&', raw)
+                : prefix + " " + ChatColor.translateAlternateColorCodes('&', raw);
+
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        int open = message.indexOf('{');
+        while (open >= 0) {
+            int close = message.indexOf('}', open + 1);
+            if (close < 0) break;
+
+            // A brace inside the key means the first one was a literal brace
+            int nested = message.indexOf('{', open + 1);
+            if (nested >= 0 && nested < close) {
+                open = nested;
+                continue;
+            }
+
+            if (close > open + 1) {
+                literals.add(message.substring(start, open));
+                keys.add(message.substring(open + 1, close));
+                start = close + 1;
+            }
+            open = message.indexOf('{', close + 1);
+        }
+        literals.add(message.substring(start));
+
+        return new MessageTemplate(literals.toArray(new String[0]), keys.toArray(new String[0]));
+    }
+
+    /**
+     * Renders the template. Placeholders without a value are kept as written.
+     *
+     * @param replacements String pairs for placeholder replacement (key1, value1, key2, value2, ...)
+     * @return Rendered message
+     */
+    public String render(String... replacements) {
+        if (constant != null) return constant;
+
+        StringBuilder builder = new StringBuilder(literalLength + keys.length * 16);
+        builder.append(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            String value = lookup(keys[i], replacements);
+            if (value != null) {
+                builder.append(value);
+            } else {
+                builder.append('{').append(keys[i]).append('}');
+            }
+            builder.append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Finds the value for a placeholder in the replacement pairs
+     */
+    private static String lookup(String key, String[] replacements) {
+        for (int i = 0; i + 1 < replacements.length; i += 2) {
+            if (key.equals(replacements[i])) {
+                return replacements[i + 1];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof MessageTemplate)) return false;
+
+        MessageTemplate template = (MessageTemplate) other;
+        return Arrays.equals(literals, template.literals) && Arrays.equals(keys, template.keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(literals) + Arrays.hashCode(keys);
+    }
+}
@@ -0,0 +1,343 @@
+package com.wish.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+/**
+ * PacketAdapter
+ * Sends action bar messages through handles resolved once at startup.
+ * Uses the Spigot chat API when the server has one, otherwise builds a
+ * PacketPlayOutChat for the detected NMS version. After repeated failures
+ * sending is disabled instead of failing again every tick.
+ * Broadcasts build their chat packets once and write the same packet
+ * objects to every recipient when the NMS path is available.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class PacketAdapter {
+    private static final int MAX_FAILURES = 5;
+    private static final byte SYSTEM_CHAT = 1;
+    private static final byte ACTION_BAR = 2;
+
+    private final Logger logger;
+    private final String version;
+    private Mode mode;
+    private int failures;
+    private boolean sharedChat;
+    private int chatFailures;
+
+    // Spigot API handles
+    private MethodHandle spigot;
+    private MethodHandle fromLegacyText;
+    private MethodHandle spigotSend;
+    private Object actionBarType;
+
+    // NMS handles
+    private MethodHandle newComponent;
+    private MethodHandle newChatPacket;
+    private MethodHandle getHandle;
+    private MethodHandle playerConnection;
+    private MethodHandle sendPacket;
+    private MethodHandle chatFromString;
+
+    // Per-send statistics
+    private long sends;
+    private long totalSendNanos;
+    private long maxSendNanos;
+    private long chatPacketsBuilt;
+    private long chatPacketsWritten;
+
+    /**
+     * Constructor for PacketAdapter, resolves every handle up front
+     *
+     * @param logger Logger to report failures to
+     */
+    public PacketAdapter(Logger logger) {
+        this.logger = logger;
+        String packageName = Bukkit.getServer().getClass().getPackage().getName();
+        this.version = packageName.substring(packageName.lastIndexOf('.') + 1);
+
+        boolean spigotAvailable = resolveSpigot();
+        boolean nmsAvailable = resolveNMS();
+        sharedChat = nmsAvailable;
+
+        if (spigotAvailable) {
+            mode = Mode.SPIGOT;
+        } else if (nmsAvailable) {
+            mode = Mode.NMS;
+        } else {
+            mode = Mode.DISABLED;
+            logger.warning("Action bars are not supported on server version " + version + ", disabling them");
+        }
+    }
+
+    /**
+     * Resolves Player.Spigot#sendMessage(ChatMessageType, BaseComponent...), added in 1.9
+     *
+     * @return true if the Spigot API is available
+     */
+    private boolean resolveSpigot() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> spigotClass = Class.forName("org.bukkit.entity.Player$Spigot");
+            Class<?> messageTypeClass = Class.forName("net.md_5.bungee.api.ChatMessageType");
+            Class<?> componentArrayClass = Class.forName("[Lnet.md_5.bungee.api.chat.BaseComponent;");
+            Class<?> textComponentClass = Class.forName("net.md_5.bungee.api.chat.TextComponent");
+
+            spigot = lookup.findVirtual(Player.class, "spigot", MethodType.methodType(spigotClass))
+                    .asType(MethodType.methodType(Object.class, Player.class));
+            fromLegacyText = lookup.findStatic(textComponentClass, "fromLegacyText",
+                            MethodType.methodType(componentArrayClass, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            spigotSend = lookup.findVirtual(spigotClass, "sendMessage",
+                            MethodType.methodType(void.class, messageTypeClass, componentArrayClass))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class, Object.class));
+            actionBarType = messageTypeClass.getField("ACTION_BAR").get(null);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolves the PacketPlayOutChat path for the detected NMS version
+     *
+     * @return true if every NMS handle was found
+     */
+    private boolean resolveNMS() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            String nms = "net.minecraft.server." + version + ".";
+            Class<?> craftPlayerClass = Class.forName("org.bukkit.craftbukkit." + version + ".entity.CraftPlayer");
+            Class<?> entityPlayerClass = Class.forName(nms + "EntityPlayer");
+            Class<?> connectionClass = Class.forName(nms + "PlayerConnection");
+            Class<?> packetClass = Class.forName(nms + "Packet");
+            Class<?> chatPacketClass = Class.forName(nms + "PacketPlayOutChat");
+            Class<?> componentClass = Class.forName(nms + "ChatComponentText");
+            Class<?> baseComponentClass = Class.forName(nms + "IChatBaseComponent");
+
+            newComponent = lookup.findConstructor(componentClass,
+                            MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            newChatPacket = lookup.findConstructor(chatPacketClass,
+                            MethodType.methodType(void.class, baseComponentClass, byte.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, byte.class));
+            getHandle = lookup.findVirtual(craftPlayerClass, "getHandle", MethodType.methodType(entityPlayerClass))
+                    .asType(MethodType.methodType(Object.class, Player.class));
+            playerConnection = lookup.findGetter(entityPlayerClass, "playerConnection", connectionClass)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            sendPacket = lookup.findVirtual(connectionClass, "sendPacket",
+                            MethodType.methodType(void.class, packetClass))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            resolveChatFromString(lookup);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolves CraftChatMessage.fromString, which splits legacy text into
+     * components the same way Player#sendMessage does. Without it each
+     * broadcast is sent as a single text component.
+     *
+     * @param lookup Lookup to resolve with
+     */
+    private void resolveChatFromString(MethodHandles.Lookup lookup) {
+        try {
+            Class<?> chatMessageClass = Class.forName("org.bukkit.craftbukkit." + version + ".util.CraftChatMessage");
+            Class<?> componentArrayClass = Class.forName(
+                    "[Lnet.minecraft.server." + version + ".IChatBaseComponent;");
+            chatFromString = lookup.findStatic(chatMessageClass, "fromString",
+                            MethodType.methodType(componentArrayClass, String.class))
+                    .asType(MethodType.methodType(Object[].class, String.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            chatFromString = null;
+        }
+    }
+
+    /**
+     * Sends an action bar message to a player
+     *
+     * @param player The player to send the action bar to
+     * @param message The message to display in the action bar
+     */
+    public void sendActionBar(Player player, String message) {
+        if (mode == Mode.DISABLED) return;
+
+        long startTime = System.nanoTime();
+        try {
+            if (mode == Mode.SPIGOT) {
+                Object components = fromLegacyText.invokeExact(message);
+                spigotSend.invokeExact(spigot.invokeExact(player), actionBarType, components);
+            } else {
+                Object packet = newChatPacket.invokeExact(newComponent.invokeExact(message), ACTION_BAR);
+                sendPacket.invokeExact(playerConnection.invokeExact(getHandle.invokeExact(player)), packet);
+            }
+            failures = 0;
+        } catch (Throwable e) {
+            handleFailure(e);
+            return;
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        sends++;
+        totalSendNanos += elapsed;
+        if (elapsed > maxSendNanos) {
+            maxSendNanos = elapsed;
+        }
+    }
+
+    /**
+     * Broadcasts a chat message, building its packets once and writing the
+     * same packet objects to every recipient. Falls back to Player#sendMessage
+     * when the NMS path is unavailable.
+     *
+     * @param recipients Players to send the message to
+     * @param message Message with color codes already applied
+     */
+    public void broadcast(Collection<? extends Player> recipients, String message) {
+        if (recipients.isEmpty()) return;
+
+        Object[] packets = sharedChat ? buildChatPackets(message) : null;
+        if (packets == null) {
+            for (Player player : recipients) {
+                player.sendMessage(message);
+            }
+            return;
+        }
+
+        for (Player player : recipients) {
+            try {
+                Object connection = playerConnection.invokeExact(getHandle.invokeExact(player));
+                if (connection == null) continue;
+
+                for (Object packet : packets) {
+                    sendPacket.invokeExact(connection, packet);
+                }
+                chatPacketsWritten += packets.length;
+                chatFailures = 0;
+            } catch (Throwable e) {
+                handleChatFailure(e);
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    /**
+     * Builds the system chat packets for a message
+     *
+     * @param message Message with color codes already applied
+     * @return Packets to send, or null if they could not be built
+     */
+    private Object[] buildChatPackets(String message) {
+        try {
+            Object[] components = chatFromString != null
+                    ? (Object[]) chatFromString.invokeExact(message)
+                    : new Object[]{newComponent.invokeExact(message)};
+
+            Object[] packets = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                packets[i] = newChatPacket.invokeExact(components[i], SYSTEM_CHAT);
+            }
+            chatPacketsBuilt += packets.length;
+            return packets;
+        } catch (Throwable e) {
+            handleChatFailure(e);
+            return null;
+        }
+    }
+
+    /**
+     * Logs a failed shared broadcast and falls back to per-player messages
+     * after too many in a row
+     *
+     * @param e Error thrown while building or writing a packet
+     */
+    private void handleChatFailure(Throwable e) {
+        chatFailures++;
+        if (chatFailures == 1) {
+            logger.warning("Error sending shared chat packet: " + e);
+        }
+        if (chatFailures >= MAX_FAILURES) {
+            sharedChat = false;
+            logger.severe("Shared chat packets failed " + chatFailures + " times in a row, using per-player messages");
+        }
+    }
+
+    /**
+     * Logs a failed send and disables action bars after too many in a row
+     *
+     * @param e Error thrown while sending
+     */
+    private void handleFailure(Throwable e) {
+        failures++;
+        if (failures == 1) {
+            logger.warning("Error sending action bar: " + e);
+        }
+        if (failures >= MAX_FAILURES) {
+            mode = Mode.DISABLED;
+            logger.severe("Action bars failed " + failures + " times in a row, disabling them");
+        }
+    }
+
+    /**
+     * Resets the collected per-send statistics
+     */
+    public void resetStats() {
+        sends = 0;
+        totalSendNanos = 0;
+        maxSendNanos = 0;
+        chatPacketsBuilt = 0;
+        chatPacketsWritten = 0;
+    }
+
+    // Getters
+    public String getModeName() {
+        return mode.name().toLowerCase();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public long getSends() {
+        return sends;
+    }
+
+    public long getAverageSendNanos() {
+        return sends == 0 ? 0 : totalSendNanos / sends;
+    }
+
+    public long getMaxSendNanos() {
+        return maxSendNanos;
+    }
+
+    public boolean isSharedChat() {
+        return sharedChat;
+    }
+
+    public long getChatPacketsBuilt() {
+        return chatPacketsBuilt;
+    }
+
+    public long getChatPacketsWritten() {
+        return chatPacketsWritten;
+    }
+
+    /**
+     * How action bars are delivered on this server
+     */
+    private enum Mode {
+        SPIGOT,
+        NMS,
+        DISABLED
+    }
+}
@@ -0,0 +1,234 @@
+package com.wish.utils;
+
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.BlockVector2D;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionType;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RegionBounds
+ * Immutable primitive bounding box compiled from a WorldGuard region.
+ * Cuboid regions are tested with plain int compares; polygon regions use
+ * the box as a cheap reject before testing a copy of their points. No
+ * WorldGuard state is read after compile, so any thread may test bounds.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class RegionBounds {
+    private static final int MIN_X = 0;
+    private static final int MIN_Y = 1;
+    private static final int MIN_Z = 2;
+    private static final int MAX_X = 3;
+    private static final int MAX_Y = 4;
+    private static final int MAX_Z = 5;
+
+    private static final Map<String, Integer> WORLD_IDS = new ConcurrentHashMap<>();
+
+    private final int[] bounds;
+    private final int worldId;
+    private final ProtectedRegion region;
+    private final boolean cuboid;
+    private final int[] pointsX;
+    private final int[] pointsZ;
+
+    private RegionBounds(int[] bounds, int worldId, ProtectedRegion region, boolean cuboid,
+                         int[] pointsX, int[] pointsZ) {
+        this.bounds = bounds;
+        this.worldId = worldId;
+        this.region = region;
+        this.cuboid = cuboid;
+        this.pointsX = pointsX;
+        this.pointsZ = pointsZ;
+    }
+
+    /**
+     * Compiles a WorldGuard region into primitive bounds
+     *
+     * @param region Region to compile
+     * @param worldName Name of the world the region belongs to
+     * @return Compiled bounds
+     */
+    public static RegionBounds compile(ProtectedRegion region, String worldName) {
+        BlockVector min = region.getMinimumPoint();
+        BlockVector max = region.getMaximumPoint();
+        int[] bounds = {
+                min.getBlockX(), min.getBlockY(), min.getBlockZ(),
+                max.getBlockX(), max.getBlockY(), max.getBlockZ()
+        };
+        RegionType type = region.getType();
+
+        // The global region contains no positions
+        List<BlockVector2D> points = type == RegionType.POLYGON ? region.getPoints() : Collections.emptyList();
+        int[] pointsX = new int[points.size()];
+        int[] pointsZ = new int[points.size()];
+        for (int i = 0; i < pointsX.length; i++) {
+            pointsX[i] = points.get(i).getBlockX();
+            pointsZ[i] = points.get(i).getBlockZ();
+        }
+        return new RegionBounds(bounds, worldId(worldName), region, type == RegionType.CUBOID, pointsX, pointsZ);
+    }
+
+    /**
+     * Checks if a location is inside these bounds
+     *
+     * @param location Location to check
+     * @return true if location is inside the region
+     */
+    public boolean contains(Location location) {
+        return contains(worldId(location.getWorld()),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Checks if a block position is inside these bounds
+     *
+     * @param worldId Id of the world, as returned by {@link #worldId(String)}
+     * @param x Block X coordinate
+     * @param y Block Y coordinate
+     * @param z Block Z coordinate
+     * @return true if the position is inside the region
+     */
+    public boolean contains(int worldId, int x, int y, int z) {
+        int[] b = bounds;
+        if (worldId != this.worldId
+                || x < b[MIN_X] || x > b[MAX_X]
+                || y < b[MIN_Y] || y > b[MAX_Y]
+                || z < b[MIN_Z] || z > b[MAX_Z]) {
+            return false;
+        }
+        return cuboid || polygonContains(x, z);
+    }
+
+    /**
+     * Point-in-polygon test on the copied points, the same test as
+     * WorldGuard's polygonal regions: corners and edges are inside
+     */
+    private boolean polygonContains(int x, int z) {
+        int[] xs = pointsX;
+        int[] zs = pointsZ;
+        if (xs.length == 0) return false;
+
+        boolean inside = false;
+        int oldX = xs[xs.length - 1];
+        int oldZ = zs[zs.length - 1];
+        for (int i = 0; i < xs.length; i++) {
+            int newX = xs[i];
+            int newZ = zs[i];
+            if (newX == x && newZ == z) return true;
+
+            int x1, z1, x2, z2;
+            if (newX > oldX) {
+                x1 = oldX;
+                z1 = oldZ;
+                x2 = newX;
+                z2 = newZ;
+            } else {
+                x1 = newX;
+                z1 = newZ;
+                x2 = oldX;
+                z2 = oldZ;
+            }
+            if (x1 <= x && x <= x2) {
+                long cross = ((long) z - z1) * (long) (x2 - x1) - ((long) z2 - z1) * (long) (x - x1);
+                if (cross == 0) {
+                    if ((z1 <= z) == (z <= z2)) return true;
+                } else if (cross < 0 && x1 != x) {
+                    inside = !inside;
+                }
+            }
+            oldX = newX;
+            oldZ = newZ;
+        }
+        return inside;
+    }
+
+    /**
+     * Checks whether a region still matches these bounds. A different
+     * region instance or changed corners mean it was redefined.
+     *
+     * @param other Region currently registered in WorldGuard
+     * @return true if the bounds are still valid for the region
+     */
+    public boolean matches(ProtectedRegion other) {
+        if (other != region) return false;
+
+        BlockVector min = other.getMinimumPoint();
+        BlockVector max = other.getMaximumPoint();
+        return min.getBlockX() == bounds[MIN_X] && min.getBlockY() == bounds[MIN_Y]
+                && min.getBlockZ() == bounds[MIN_Z] && max.getBlockX() == bounds[MAX_X]
+                && max.getBlockY() == bounds[MAX_Y] && max.getBlockZ() == bounds[MAX_Z];
+    }
+
+    /**
+     * Gets a numeric id for a world name, assigning one if needed
+     *
+     * @param worldName World name
+     * @return World id, or -1 if the name is null
+     */
+    public static int worldId(String worldName) {
+        if (worldName == null) return -1;
+
+        Integer id = WORLD_IDS.get(worldName);
+        if (id == null) {
+            synchronized (WORLD_IDS) {
+                id = WORLD_IDS.get(worldName);
+                if (id == null) {
+                    id = WORLD_IDS.size();
+                    WORLD_IDS.put(worldName, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Gets a numeric id for a world, assigning one if needed
+     *
+     * @param world World
+     * @return World id, or -1 if the world is null
+     */
+    public static int worldId(World world) {
+        return world == null ? -1 : worldId(world.getName());
+    }
+
+    // Getters
+    public int getMinX() {
+        return bounds[MIN_X];
+    }
+
+    public int getMinY() {
+        return bounds[MIN_Y];
+    }
+
+    public int getMinZ() {
+        return bounds[MIN_Z];
+    }
+
+    public int getMaxX() {
+        return bounds[MAX_X];
+    }
+
+    public int getMaxY() {
+        return bounds[MAX_Y];
+    }
+
+    public int getMaxZ() {
+        return bounds[MAX_Z];
+    }
+
+    public int getWorldId() {
+        return worldId;
+    }
+
+    public boolean isCuboid() {
+        return cuboid;
+    }
+}
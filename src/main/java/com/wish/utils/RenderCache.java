@@ -0,0 +1,74 @@
+package com.wish.utils;
+
+/**
+ * RenderCache
+ * Pre-built countdown strings and capture action bars for one KOTH run.
+ * Built when a KOTH starts for its capture time and dropped when it ends,
+ * so per-second rendering is an array lookup.
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public final class RenderCache {
+    private static final int BAR_LENGTH = 20;
+    private static final String ACTION_BAR_PREFIX = "§eCaptured: ";
+
+    private final int captureTime;
+    private final String[] times;
+    private final String[] actionBars;
+
+    /**
+     * Constructor for RenderCache
+     *
+     * @param captureTime Capture time of the KOTH in seconds
+     */
+    public RenderCache(int captureTime) {
+        this.captureTime = Math.max(1, captureTime);
+        this.times = new String[this.captureTime + 1];
+        this.actionBars = new String[this.captureTime + 1];
+
+        // Only BAR_LENGTH + 1 distinct bars exist, share them between seconds
+        String[] bars = new String[BAR_LENGTH + 1];
+        for (int filled = 0; filled <= BAR_LENGTH; filled++) {
+            bars[filled] = MessageUtils.createProgressBar(filled, BAR_LENGTH);
+        }
+
+        for (int remaining = 0; remaining <= this.captureTime; remaining++) {
+            times[remaining] = MessageUtils.formatTime(remaining);
+            actionBars[remaining] = ACTION_BAR_PREFIX + bars[filledFor(remaining)] + " §e" + times[remaining];
+        }
+    }
+
+    /**
+     * Gets the formatted time for a number of seconds
+     *
+     * @param seconds Time in seconds
+     * @return Formatted m:ss string
+     */
+    public String getTime(int seconds) {
+        return seconds >= 0 && seconds < times.length ? times[seconds] : MessageUtils.formatTime(seconds);
+    }
+
+    /**
+     * Gets the capturer's action bar for a remaining time
+     *
+     * @param remainingTime Remaining capture time in seconds
+     * @return Action bar text with progress bar and time left
+     */
+    public String getActionBar(int remainingTime) {
+        if (remainingTime >= 0 && remainingTime < actionBars.length) {
+            return actionBars[remainingTime];
+        }
+        int filled = Math.max(0, Math.min(BAR_LENGTH, filledFor(remainingTime)));
+        return ACTION_BAR_PREFIX + MessageUtils.createProgressBar(filled, BAR_LENGTH)
+                + " §e" + MessageUtils.formatTime(remainingTime);
+    }
+
+    /**
+     * Number of filled blocks for a remaining time
+     */
+    private int filledFor(int remainingTime) {
+        double progress = 1 - ((double) remainingTime / captureTime);
+        return (int) (progress * BAR_LENGTH);
+    }
+}
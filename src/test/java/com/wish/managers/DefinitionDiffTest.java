@@ -0,0 +1,68 @@
+package com.wish.managers;
+
+import com.wish.storage.KOTHData;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * DefinitionDiffTest
+ * Checks which stored KOTH definitions count as added, changed or removed
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class DefinitionDiffTest {
+
+    @Test
+    public void findsAddedChangedAndRemoved() {
+        KOTHData hill = definition("hill", "region");
+        KOTHData movedHill = definition("hill", "other-region");
+        KOTHData tower = definition("tower", "region");
+        KOTHData castle = definition("castle", "region");
+
+        Map<String, KOTHData> current = new HashMap<>();
+        current.put("hill", hill);
+        current.put("tower", tower);
+        Map<String, KOTHData> stored = new HashMap<>();
+        stored.put("hill", movedHill);
+        stored.put("castle", castle);
+
+        DefinitionDiff diff = DefinitionDiff.between(current, stored);
+        assertEquals(Collections.singletonList(castle), diff.getAdded());
+        assertEquals(Collections.singletonList(movedHill), diff.getChanged());
+        assertEquals(Collections.singletonList("tower"), diff.getRemoved());
+        assertEquals(3, diff.size());
+    }
+
+    @Test
+    public void ignoresEqualDefinitions() {
+        Map<String, KOTHData> current = new HashMap<>();
+        current.put("hill", definition("hill", "region"));
+        Map<String, KOTHData> stored = new HashMap<>();
+        stored.put("hill", definition("hill", "region"));
+
+        DefinitionDiff diff = DefinitionDiff.between(current, stored);
+        assertEquals(0, diff.size());
+        assertTrue(diff.getChanged().isEmpty());
+    }
+
+    @Test
+    public void detectsMovedChest() {
+        Map<String, KOTHData> current = new HashMap<>();
+        current.put("hill", new KOTHData("hill", "world", "region", "world", 1, 64, 1, 0, 0));
+        Map<String, KOTHData> stored = new HashMap<>();
+        stored.put("hill", new KOTHData("hill", "world", "region", "world", 2, 64, 1, 0, 0));
+
+        assertEquals(1, DefinitionDiff.between(current, stored).getChanged().size());
+    }
+
+    private static KOTHData definition(String name, String region) {
+        return new KOTHData(name, "world", region, null, 0, 0, 0, 0, 0);
+    }
+}
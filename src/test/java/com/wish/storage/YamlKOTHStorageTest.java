@@ -0,0 +1,83 @@
+package com.wish.storage;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * YamlKOTHStorageTest
+ * Checks KOTH file names and the parsing of stored chest spawns
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class YamlKOTHStorageTest {
+    private static final File FOLDER = new File("koths");
+
+    @Test
+    public void fileNamesRoundTrip() {
+        String[] names = {"hill", "A-_z9", "a.b", "50%", "a/b\\c", "..", "mañana", "con"};
+        for (String name : names) {
+            File file = YamlKOTHStorage.fileFor(FOLDER, name);
+            String fileName = file.getName().substring(0, file.getName().length() - ".yml".length());
+
+            assertEquals(FOLDER, file.getParentFile());
+            assertTrue("unsafe file name " + fileName, fileName.matches("[A-Za-z0-9_%-]+"));
+            assertEquals(name, YamlKOTHStorage.decode(fileName));
+        }
+    }
+
+    @Test
+    public void keepsFileNamesWithInvalidEscapes() {
+        assertEquals("50%", YamlKOTHStorage.decode("50%"));
+        assertEquals("a%zz", YamlKOTHStorage.decode("a%zz"));
+        assertEquals("plain", YamlKOTHStorage.decode("plain"));
+    }
+
+    @Test
+    public void parsesChestWithWorldKey() throws StorageException {
+        KOTHData data = YamlKOTHStorage.parseDefinition("hill", "world", "region",
+                "my,world", "1.5,64.0,-3.0,90.0,10.0");
+        assertEquals("my,world", data.getChestWorld());
+        assertEquals(1.5, data.getChestX(), 0);
+        assertEquals(64, data.getChestY(), 0);
+        assertEquals(-3, data.getChestZ(), 0);
+        assertEquals(90, data.getChestYaw(), 0);
+        assertEquals(10, data.getChestPitch(), 0);
+    }
+
+    @Test
+    public void parsesOldChestLine() throws StorageException {
+        KOTHData data = YamlKOTHStorage.parseDefinition("hill", "world", "region",
+                null, "my,world,1.0,2.0,3.0,4.0,5.0");
+        assertEquals("my,world", data.getChestWorld());
+        assertEquals(1, data.getChestX(), 0);
+        assertEquals(5, data.getChestPitch(), 0);
+    }
+
+    @Test
+    public void parsesMissingChest() throws StorageException {
+        KOTHData data = YamlKOTHStorage.parseDefinition("hill", "world", "region", null, null);
+        assertNull(data.getChestWorld());
+        assertEquals("region", data.getRegionName());
+    }
+
+    @Test(expected = StorageException.class)
+    public void rejectsOldChestLineWithoutWorld() throws StorageException {
+        YamlKOTHStorage.parseDefinition("hill", "world", "region", null, "1,2,3,4,5");
+    }
+
+    @Test(expected = StorageException.class)
+    public void rejectsShortChestLine() throws StorageException {
+        YamlKOTHStorage.parseDefinition("hill", "world", "region", "world", "1,2,3");
+    }
+
+    @Test(expected = StorageException.class)
+    public void rejectsInvalidNumbers() throws StorageException {
+        YamlKOTHStorage.parseDefinition("hill", "world", "region", "world", "1,2,x,4,5");
+    }
+}
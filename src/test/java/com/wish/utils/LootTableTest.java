@@ -0,0 +1,94 @@
+package com.wish.utils;
+
+import org.bukkit.Material;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LootTableTest
+ * Checks the alias table against the entry weights and the chest fill
+ * against the expected number of filled slots
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class LootTableTest {
+    private static final double[] WEIGHTS = {5, 1, 0.5, 3.5};
+    private static final int SAMPLES = 1000000;
+
+    @Test
+    public void samplesByWeight() {
+        LootTable table = table(WEIGHTS);
+        SplittableRandom random = new SplittableRandom(1);
+        long[] counts = new long[WEIGHTS.length];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            assertEquals("share of entry " + i, WEIGHTS[i] / 10, counts[i] / (double) SAMPLES, 0.003);
+        }
+    }
+
+    @Test
+    public void samplesSingleEntry() {
+        LootTable table = table(new double[]{2});
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, table.sample(random));
+        }
+    }
+
+    @Test
+    public void fillsExpectedSlots() {
+        LootTable table = table(WEIGHTS);
+        SplittableRandom random = new SplittableRandom(3);
+        int[] slots = new int[LootTable.CHEST_SIZE];
+        int chests = SAMPLES / 5;
+        long filled = 0;
+        for (int i = 0; i < chests; i++) {
+            int count = table.fill(random, slots);
+
+            int used = 0;
+            for (int slot : slots) {
+                if (slot >= 0) used++;
+            }
+            assertEquals(used, count);
+            assertTrue(count >= 1 && count < LootTable.MIN_ROLLS + LootTable.EXTRA_ROLLS);
+            filled += count;
+        }
+
+        // Each roll lands on an empty slot with probability (1 - 1/27)^(rolls before it)
+        double expected = 0;
+        for (int rolls = LootTable.MIN_ROLLS; rolls < LootTable.MIN_ROLLS + LootTable.EXTRA_ROLLS; rolls++) {
+            expected += LootTable.CHEST_SIZE * (1 - Math.pow(1 - 1.0 / LootTable.CHEST_SIZE, rolls))
+                    / LootTable.EXTRA_ROLLS;
+        }
+        assertEquals(expected, filled / (double) chests, 0.02);
+    }
+
+    @Test
+    public void fillsNothingFromEmptyTable() {
+        LootTable table = LootTable.compile(null, new ArrayList<>());
+        int[] slots = new int[LootTable.CHEST_SIZE];
+        assertTrue(table.isEmpty());
+        assertEquals(0, table.fill(new SplittableRandom(4), slots));
+        for (int slot : slots) {
+            assertEquals(-1, slot);
+        }
+    }
+
+    private static LootTable table(double[] weights) {
+        List<LootTable.Entry> entries = new ArrayList<>();
+        for (double weight : weights) {
+            entries.add(new LootTable.Entry("tier", Material.DIAMOND, 1, (short) 0, weight));
+        }
+        return new LootTable(entries);
+    }
+}
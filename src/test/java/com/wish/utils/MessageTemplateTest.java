@@ -0,0 +1,62 @@
+package com.wish.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * MessageTemplateTest
+ * Checks that compiled templates render like plain placeholder replacement
+ *
+ * @author wwishh
+ * @version 0.0.1
+ */
+public class MessageTemplateTest {
+
+    @Test
+    public void rendersPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("", "{player} captured {name}!");
+        assertEquals("Bob captured hill!", template.render("name", "hill", "player", "Bob"));
+    }
+
+    @Test
+    public void addsPrefixWithSpace() {
+        MessageTemplate template = MessageTemplate.compile("[KOTH]", "Hi {player}");
+        assertEquals("[KOTH] Hi Bob", template.render("player", "Bob"));
+    }
+
+    @Test
+    public void keepsUnknownPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("", "{x} {missing}");
+        assertEquals("1 {missing}", template.render("x", "1"));
+    }
+
+    @Test
+    public void keepsLiteralBraces() {
+        MessageTemplate template = MessageTemplate.compile("", "{{a}} {} {b");
+        assertEquals("{1} {} {b", template.render("a", "1", "b", "2"));
+    }
+
+    @Test
+    public void repeatsPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("", "{a}-{a}");
+        assertEquals("x-x", template.render("a", "x"));
+    }
+
+    @Test
+    public void rendersConstantMessages() {
+        MessageTemplate template = MessageTemplate.compile("", "plain");
+        assertEquals("plain", template.render("a", "b"));
+        assertEquals("plain", template.render());
+    }
+
+    @Test
+    public void comparesByContent() {
+        MessageTemplate template = MessageTemplate.compile("", "Hi {a}");
+        MessageTemplate same = MessageTemplate.compile("", "Hi {a}");
+        assertEquals(template, same);
+        assertEquals(template.hashCode(), same.hashCode());
+        assertNotEquals(template, MessageTemplate.compile("", "Hi {b}"));
+    }
+}